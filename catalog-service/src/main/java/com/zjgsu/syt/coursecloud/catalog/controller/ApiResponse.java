@@ -0,0 +1,86 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 统一响应信封：port、hostname、status，成功时带 data，失败时带 message
+ * 字段固定的部分直接序列化，不再为每个响应分配一个 HashMap；count、missing 等附加字段通过 with 追加，
+ * 序列化时与固定字段平铺在同一层，JSON 结构与原来的 Map 响应一致。
+ */
+@JsonPropertyOrder({"port", "hostname", "status", "data", "message"})
+public final class ApiResponse {
+
+    private static final String SUCCESS = "SUCCESS";
+    private static final String ERROR = "ERROR";
+
+    private final String port;
+    private final String hostname;
+    private final String status;
+    private final Object data;
+    private String message;
+    private Map<String, Object> extra;
+
+    private ApiResponse(InstanceIdentity instance, String status, Object data, String message) {
+        this.port = instance.port();
+        this.hostname = instance.hostname();
+        this.status = status;
+        this.data = data;
+        this.message = message;
+    }
+
+    public static ApiResponse success(InstanceIdentity instance, Object data) {
+        return new ApiResponse(instance, SUCCESS, data, null);
+    }
+
+    public static ApiResponse error(InstanceIdentity instance, String message) {
+        return new ApiResponse(instance, ERROR, null, message);
+    }
+
+    public ApiResponse message(String message) {
+        this.message = message;
+        return this;
+    }
+
+    /**
+     * 追加一个与 data 同级的字段
+     */
+    public ApiResponse with(String name, Object value) {
+        if (extra == null) {
+            extra = new LinkedHashMap<>(4);
+        }
+        extra.put(name, value);
+        return this;
+    }
+
+    public String getPort() {
+        return port;
+    }
+
+    public String getHostname() {
+        return hostname;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Object getData() {
+        return data;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getMessage() {
+        return message;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtra() {
+        return extra;
+    }
+}
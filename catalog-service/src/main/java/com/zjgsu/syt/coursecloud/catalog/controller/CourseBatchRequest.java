@@ -0,0 +1,10 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record CourseBatchRequest(
+        @NotEmpty List<String> ids
+) {
+}
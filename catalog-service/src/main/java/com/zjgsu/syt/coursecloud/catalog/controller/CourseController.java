@@ -1,23 +1,35 @@
 package com.zjgsu.syt.coursecloud.catalog.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.zjgsu.syt.coursecloud.catalog.model.Course;
 import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
 import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
 import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import com.zjgsu.syt.coursecloud.catalog.service.CourseOccupancyIndex;
+import com.zjgsu.syt.coursecloud.catalog.service.CourseSearchIndex;
+import com.zjgsu.syt.coursecloud.catalog.service.CourseSearchPage;
+import com.zjgsu.syt.coursecloud.catalog.service.CourseService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.net.InetAddress;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,82 +38,192 @@ public class CourseController {
 
     private static final Logger log = LoggerFactory.getLogger(CourseController.class);
 
-    private final CourseRepository repository;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+    private static final int MAX_SEARCH_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 100;
+    // 按相关度取前 N 条需要在内存中保留 N 条候选，限制最深可翻到的位置
+    private static final int MAX_SEARCH_WINDOW = 10_000;
 
-    @Value("${server.port}")
-    private String currentPort;
+    private final CourseRepository repository;
+    private final CourseService courseService;
+    private final CourseOccupancyIndex occupancyIndex;
+    private final CourseSearchIndex searchIndex;
+    private final InstanceIdentity instance;
+    private final ObjectWriter courseWriter;
 
-    public CourseController(CourseRepository repository) {
+    public CourseController(CourseRepository repository, CourseService courseService,
+                            CourseOccupancyIndex occupancyIndex, CourseSearchIndex searchIndex,
+                            InstanceIdentity instance, ObjectMapper objectMapper) {
         this.repository = repository;
+        this.courseService = courseService;
+        this.occupancyIndex = occupancyIndex;
+        this.searchIndex = searchIndex;
+        this.instance = instance;
+        this.courseWriter = objectMapper.writerFor(CourseResponse.class);
     }
 
-    // ==================== 辅助方法：获取主机名 ====================
-    private String getHostname() {
-        // 优先使用环境变量 HOSTNAME (Docker 容器中最可靠)
-        String hostname = System.getenv("HOSTNAME");
-        if (hostname != null && !hostname.isEmpty()) {
-            return hostname;
+    // ==================== Course Endpoints ====================
+    @GetMapping
+    public ResponseEntity<ApiResponse> listCourses(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        // 未指定分页参数时保持原有的全量返回
+        if (size == null && cursor == null) {
+            log.info("Catalog Service [port: {}, hostname: {}] listing all courses",
+                    instance.port(), instance.hostname());
+
+            List<CourseResponse> courses = repository.findAll()
+                    .stream()
+                    .map(CourseResponse::from)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(ApiResponse.success(instance, courses)
+                    .with("count", courses.size()));
         }
 
-        // 备用方案：使用 InetAddress
+        int pageSize = Math.min(size != null && size > 0 ? size : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        log.info("Catalog Service [port: {}, hostname: {}] listing courses page: size={}, cursor={}",
+                instance.port(), instance.hostname(), pageSize, cursor);
+
+        CourseCursor after;
         try {
-            return InetAddress.getLocalHost().getHostName();
-        } catch (Exception e) {
-            log.warn("Failed to get hostname: {}", e.getMessage());
+            after = cursor != null ? CourseCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(instance, e.getMessage()));
         }
 
-        // 最后的 fallback
-        return "unknown-" + currentPort;
-    }
+        // 多取一行用于判断是否还有下一页
+        List<Course> page = courseService.getCoursesPage(
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        boolean hasMore = page.size() > pageSize;
+        List<Course> rows = hasMore ? page.subList(0, pageSize) : page;
 
-    // ==================== Course Endpoints ====================
-    @GetMapping
-    public Map<String, Object> listCourses() {
-        log.info("Catalog Service [port: {}, hostname: {}] listing all courses",
-                currentPort, getHostname());
+        return ResponseEntity.ok(ApiResponse.success(instance, rows.stream().map(CourseResponse::from).toList())
+                .with("count", rows.size())
+                .with("nextCursor", hasMore ? CourseCursor.of(rows.get(rows.size() - 1)).encode() : null));
+    }
 
-        List<CourseResponse> courses = repository.findAll()
-                .stream()
-                .map(CourseResponse::from)
-                .collect(Collectors.toList());
+    /**
+     * 流式返回全部课程（NDJSON，每行一个课程），边读结果集边写响应
+     */
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamCourses() {
+        log.info("Catalog Service [port: {}, hostname: {}] streaming all courses",
+                instance.port(), instance.hostname());
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-        response.put("data", courses);
-        response.put("count", courses.size());
-        response.put("status", "SUCCESS");
-        return response;
+        StreamingResponseBody body = out -> {
+            courseService.forEachCourse(course -> {
+                try {
+                    out.write(courseWriter.writeValueAsBytes(CourseResponse.from(course)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
+    /**
+     * 按 id 查询课程，读穿本地缓存
+     * 课程增删改在所有实例上立即可见；其他实例上发生的占座/人数变化最多延迟 catalog.course-cache.ttl-seconds
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getCourse(@PathVariable String id) {
+    public ResponseEntity<ApiResponse> getCourse(@PathVariable String id) {
         log.info("Catalog Service [port: {}, hostname: {}] getting course: {}",
-                currentPort, getHostname(), id);
-
-        return repository.findById(id)
-                .map(course -> {
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("port", currentPort);
-                    response.put("hostname", getHostname());
-                    response.put("data", CourseResponse.from(course));
-                    response.put("status", "SUCCESS");
-                    return ResponseEntity.ok(response);
-                })
-                .orElseGet(() -> {
-                    Map<String, Object> errorResponse = new HashMap<>();
-                    errorResponse.put("port", currentPort);
-                    errorResponse.put("hostname", getHostname());
-                    errorResponse.put("status", "ERROR");
-                    errorResponse.put("message", "Course with id " + id + " not found");
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-                });
+                instance.port(), instance.hostname(), id);
+
+        return courseService.getCourseById(id)
+                .map(course -> ResponseEntity.ok(ApiResponse.success(instance, CourseResponse.from(course))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(instance, "Course with id " + id + " not found")));
+    }
+
+    /**
+     * 批量查询课程：一次 IN 查询，data 为 id -> 课程 的映射，不存在的 id 列在 missing 中
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse> getCourses(@Valid @RequestBody CourseBatchRequest request) {
+        log.info("Catalog Service [port: {}, hostname: {}] batch getting {} courses",
+                instance.port(), instance.hostname(), request.ids().size());
+
+        Set<String> ids = new LinkedHashSet<>(request.ids());
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(instance, "At most " + MAX_BATCH_SIZE + " ids per request"));
+        }
+
+        Map<String, CourseResponse> courses = new LinkedHashMap<>();
+        for (Course course : courseService.getCoursesByIds(ids)) {
+            courses.put(course.getId(), CourseResponse.from(course));
+        }
+        List<String> missing = ids.stream().filter(id -> !courses.containsKey(id)).toList();
+
+        return ResponseEntity.ok(ApiResponse.success(instance, courses)
+                .with("missing", missing)
+                .with("count", courses.size()));
+    }
+
+    /**
+     * 按课程代码、标题、教师姓名搜索（词前缀匹配，多个词需全部命中），按相关度分页返回课程摘要
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse> searchCourses(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        log.info("Catalog Service [port: {}, hostname: {}] searching courses: q={}, page={}, size={}",
+                instance.port(), instance.hostname(), q, page, size);
+
+        int pageSize = Math.min(size != null && size > 0 ? size : DEFAULT_SEARCH_SIZE, MAX_SEARCH_SIZE);
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH || page < 0 || (long) (page + 1) * pageSize > MAX_SEARCH_WINDOW) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(instance,
+                    "Query must be 1-" + MAX_QUERY_LENGTH + " characters and only the first "
+                            + MAX_SEARCH_WINDOW + " results can be paged"));
+        }
+
+        CourseSearchPage result = searchIndex.search(q, page, pageSize);
+        return ResponseEntity.ok(ApiResponse.success(instance, result.hits())
+                .with("count", result.hits().size())
+                .with("total", result.total())
+                .with("page", result.page())
+                .with("size", result.size())
+                .with("hasMore", result.hasMore()));
+    }
+
+    /**
+     * 查询某天 [from, to) 时间窗口内有课的课程及预计到课人数合计，只读内存占用索引
+     */
+    @GetMapping("/occupancy")
+    public ResponseEntity<ApiResponse> getOccupancy(
+            @RequestParam DayOfWeekValue day,
+            @RequestParam String from,
+            @RequestParam String to) {
+        log.info("Catalog Service [port: {}, hostname: {}] querying occupancy: {} {}-{}",
+                instance.port(), instance.hostname(), day, from, to);
+
+        try {
+            CourseOccupancyResponse occupancy = CourseOccupancyResponse.from(
+                    occupancyIndex.query(day.toDayOfWeek(), LocalTime.parse(from), LocalTime.parse(to)));
+            return ResponseEntity.ok(ApiResponse.success(instance, occupancy));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(instance, e.getMessage()));
+        }
     }
 
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createCourse(@Valid @RequestBody CourseRequest request) {
+    public ResponseEntity<ApiResponse> createCourse(@Valid @RequestBody CourseRequest request) {
         log.info("Catalog Service [port: {}, hostname: {}] creating course: {}",
-                currentPort, getHostname(), request.code());
+                instance.port(), instance.hostname(), request.code());
 
         Course course = new Course(
                 request.code(),
@@ -115,14 +237,10 @@ public class CourseController {
                 ),
                 request.capacity()
         );
-        Course saved = repository.save(course);
+        Course saved = courseService.createCourse(course);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-        response.put("data", CourseResponse.from(saved));
-        response.put("status", "SUCCESS");
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(instance, CourseResponse.from(saved)));
     }
 
     // ==================== 测试接口（负载均衡验证）====================
@@ -141,16 +259,10 @@ public class CourseController {
     public Map<String, Object> test() {
         Map<String, Object> response = new HashMap<>();
         response.put("service", "catalog-service");
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-
-        // ★ 添加容器IP,用于负载均衡测试
-        try {
-            response.put("ip", InetAddress.getLocalHost().getHostAddress());
-        } catch (Exception e) {
-            response.put("ip", "unknown");
-            log.warn("Failed to get IP address: {}", e.getMessage());
-        }
+        response.put("port", instance.port());
+        response.put("hostname", instance.hostname());
+        // ★ 添加容器IP,用于负载均衡测试（启动时解析）
+        response.put("ip", instance.address());
 
         response.put("timestamp", LocalDateTime.now());
         response.put("status", "UP");
@@ -162,8 +274,8 @@ public class CourseController {
     public Map<String, Object> health() {
         Map<String, Object> health = new HashMap<>();
         health.put("status", "UP");
-        health.put("port", currentPort);
-        health.put("hostname", getHostname());
+        health.put("port", instance.port());
+        health.put("hostname", instance.hostname());
         health.put("service", "catalog-service");
         health.put("timestamp", System.currentTimeMillis());
         return health;
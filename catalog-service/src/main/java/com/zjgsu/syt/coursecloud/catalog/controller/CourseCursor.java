@@ -0,0 +1,36 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 课程列表分页游标：上一页最后一行的 (createdAt, id)，以 URL 安全的 Base64 传给客户端
+ */
+public record CourseCursor(LocalDateTime createdAt, String id) {
+
+    public static CourseCursor of(Course course) {
+        return new CourseCursor(course.getCreatedAt(), course.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CourseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new CourseCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import com.zjgsu.syt.coursecloud.catalog.service.CourseOccupancy;
+import com.zjgsu.syt.coursecloud.catalog.service.OccupiedSlot;
+
+import java.util.List;
+
+public record CourseOccupancyResponse(
+        String dayOfWeek,
+        String from,
+        String to,
+        int count,
+        int totalExpectedAttendance,
+        List<Item> courses
+) {
+    public record Item(
+            String id,
+            String code,
+            String title,
+            String start,
+            String end,
+            int expectedAttendance
+    ) {
+        static Item from(OccupiedSlot slot) {
+            return new Item(slot.courseId(), slot.code(), slot.title(),
+                    slot.start().toString(), slot.end().toString(), slot.expectedAttendance());
+        }
+    }
+
+    public static CourseOccupancyResponse from(CourseOccupancy occupancy) {
+        return new CourseOccupancyResponse(
+                occupancy.dayOfWeek().name(),
+                occupancy.from().toString(),
+                occupancy.to().toString(),
+                occupancy.courses().size(),
+                occupancy.totalExpectedAttendance(),
+                occupancy.courses().stream().map(Item::from).toList()
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaNotifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 接收其他 catalog-service 实例推送的课程变更，在本实例内发布 CourseReplicaChangedEvent
+ * 路径不在 /api 下，网关不会转发，只供服务间直接调用
+ */
+@RestController
+@RequestMapping("/internal/course-replicas")
+public class CourseReplicaController {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseReplicaController.class);
+
+    private final CourseReplicaNotifier notifier;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CourseReplicaController(CourseReplicaNotifier notifier, ApplicationEventPublisher eventPublisher) {
+        this.notifier = notifier;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void onReplicaChanged(@RequestHeader(value = CourseReplicaNotifier.ORIGIN_HEADER, required = false) String origin,
+                                 @RequestBody CourseChangedEvent event) {
+        // 本实例的变更已由本地事件处理
+        if (notifier.instanceId().equals(origin)) {
+            return;
+        }
+        log.debug("Received course change from replica {}: {}", origin, event);
+        eventPublisher.publishEvent(new CourseReplicaChangedEvent(event));
+    }
+}
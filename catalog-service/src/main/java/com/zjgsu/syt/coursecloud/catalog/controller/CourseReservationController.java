@@ -0,0 +1,76 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import com.zjgsu.syt.coursecloud.catalog.service.CourseService;
+import com.zjgsu.syt.coursecloud.catalog.service.SeatReleaseResult;
+import com.zjgsu.syt.coursecloud.catalog.service.SeatReservationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 原子占座 / 释放座位
+ * 路径不在 /api 下，网关不会转发，只供服务间直接调用：外部用户不能绕过选课直接占座，
+ * 也不能通过释放座位触发 SEAT_RELEASED 通知和候补递补
+ */
+@RestController
+@RequestMapping("/internal/course-reservations")
+public class CourseReservationController {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseReservationController.class);
+
+    private final CourseService courseService;
+    private final InstanceIdentity instance;
+
+    public CourseReservationController(CourseService courseService, InstanceIdentity instance) {
+        this.courseService = courseService;
+        this.instance = instance;
+    }
+
+    @PostMapping("/{courseId}")
+    public ResponseEntity<ApiResponse> reserveSeat(@PathVariable String courseId) {
+        log.info("Catalog Service [port: {}, hostname: {}] reserving seat for course: {}",
+                instance.port(), instance.hostname(), courseId);
+
+        SeatReservationResult result = courseService.reserveSeat(courseId);
+
+        return switch (result) {
+            case RESERVED -> ResponseEntity.ok(ApiResponse.success(instance, null)
+                    .with("courseId", courseId)
+                    .with("result", result.name()));
+            case FULL -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(instance, "Course with id " + courseId + " is full")
+                            .with("courseId", courseId)
+                            .with("result", result.name()));
+            default -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(instance, "Course with id " + courseId + " not found")
+                            .with("courseId", courseId)
+                            .with("result", result.name()));
+        };
+    }
+
+    @DeleteMapping("/{courseId}")
+    public ResponseEntity<ApiResponse> releaseSeat(@PathVariable String courseId) {
+        log.info("Catalog Service [port: {}, hostname: {}] releasing seat for course: {}",
+                instance.port(), instance.hostname(), courseId);
+
+        SeatReleaseResult result = courseService.releaseSeat(courseId);
+
+        return switch (result) {
+            case RELEASED -> ResponseEntity.noContent().build();
+            case NONE_ENROLLED -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(instance, "Course with id " + courseId + " has no enrolled seats")
+                            .with("courseId", courseId)
+                            .with("result", result.name()));
+            default -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(instance, "Course with id " + courseId + " not found")
+                            .with("courseId", courseId)
+                            .with("result", result.name()));
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import com.zjgsu.syt.coursecloud.catalog.service.CourseService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 应用 enrollment-service outbox 汇总后的选课人数增量
+ * 路径不在 /api 下，网关不会转发，只供服务间直接调用：外部用户不能直接改写课程的选课人数
+ */
+@RestController
+@RequestMapping("/internal/enrollment-deltas")
+public class EnrollmentDeltaController {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentDeltaController.class);
+
+    private final CourseService courseService;
+    private final InstanceIdentity instance;
+
+    public EnrollmentDeltaController(CourseService courseService, InstanceIdentity instance) {
+        this.courseService = courseService;
+        this.instance = instance;
+    }
+
+    /**
+     * 同一 batchId 重复提交时直接返回成功
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse> applyEnrollmentDeltas(@Valid @RequestBody EnrollmentDeltaRequest request) {
+        log.info("Catalog Service [port: {}, hostname: {}] applying enrollment deltas: batchId={}, courses={}",
+                instance.port(), instance.hostname(), request.batchId(), request.deltas().size());
+
+        boolean applied;
+        try {
+            applied = courseService.applyEnrollmentDeltas(request.batchId(), request.deltas());
+        } catch (DataIntegrityViolationException e) {
+            // 并发重放同一批次，另一请求已先提交
+            applied = false;
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("batchId", request.batchId());
+        data.put("applied", applied);
+        data.put("courses", request.deltas().size());
+
+        return ResponseEntity.ok(ApiResponse.success(instance, data)
+                .message(applied ? "Enrollment deltas applied" : "Batch already applied"));
+    }
+}
@@ -0,0 +1,17 @@
+package com.zjgsu.syt.coursecloud.catalog.controller;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.Map;
+
+/**
+ * 选课人数增量：batchId 为幂等键，deltas 为 courseId -> 人数变化（可为负）
+ */
+public record EnrollmentDeltaRequest(
+        @NotBlank @Size(max = 64) String batchId,
+        @NotEmpty Map<@NotBlank String, @NotNull Integer> deltas
+) {
+}
@@ -0,0 +1,60 @@
+package com.zjgsu.syt.coursecloud.catalog.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * 课程变更通知
+ * 事务提交后把变更推送给每一个 enrollment-service 实例，使其失效本地课程快照缓存。
+ * 逐个实例推送而不是走负载均衡，否则只有其中一个实例能收到通知。
+ */
+@Component
+public class CourseChangeNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseChangeNotifier.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final RestTemplate restTemplate;
+
+    @Value("${catalog.course-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.course-events.subscriber:enrollment-service}")
+    private String subscriber;
+
+    public CourseChangeNotifier(DiscoveryClient discoveryClient, RestTemplateBuilder restTemplateBuilder) {
+        this.discoveryClient = discoveryClient;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(1))
+                .setReadTimeout(Duration.ofSeconds(2))
+                .build();
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (ServiceInstance instance : discoveryClient.getInstances(subscriber)) {
+            try {
+                restTemplate.postForLocation(instance.getUri() + "/internal/course-events", event);
+            } catch (Exception e) {
+                // 推送失败不影响课程写操作，订阅方缓存会在 TTL 到期后自行刷新
+                log.warn("Failed to notify {} of course change {}: {}", instance.getUri(), event, e.getMessage());
+            }
+        }
+        log.debug("Course change published: {}", event);
+    }
+}
@@ -0,0 +1,9 @@
+package com.zjgsu.syt.coursecloud.catalog.event;
+
+public enum CourseChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // 释放了一个座位，订阅方据此递补候补学生
+    SEAT_RELEASED
+}
@@ -0,0 +1,7 @@
+package com.zjgsu.syt.coursecloud.catalog.event;
+
+/**
+ * 课程变更事件，由 CourseService 在写操作后发布
+ */
+public record CourseChangedEvent(String courseId, CourseChangeType type) {
+}
@@ -0,0 +1,8 @@
+package com.zjgsu.syt.coursecloud.catalog.event;
+
+/**
+ * 其他 catalog-service 实例提交的课程变更，由 CourseReplicaController 在本实例内重新发布
+ * 与 CourseChangedEvent 分开，避免本实例再次向订阅服务和其他实例转发
+ */
+public record CourseReplicaChangedEvent(CourseChangedEvent change) {
+}
@@ -0,0 +1,72 @@
+package com.zjgsu.syt.coursecloud.catalog.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 课程变更在 catalog-service 实例间的同步
+ * 课程缓存、占用索引和搜索索引都在实例内存中，事务提交后把变更推送给同名服务的每一个实例（含本实例，由请求头识别后跳过），
+ * 各实例收到后按课程 id 失效缓存、增量更新索引。推送失败的实例由索引的定时全量重建和缓存的 ttl 兜底。
+ */
+@Component
+public class CourseReplicaNotifier {
+
+    public static final String ORIGIN_HEADER = "X-Catalog-Instance";
+
+    private static final Logger log = LoggerFactory.getLogger(CourseReplicaNotifier.class);
+
+    // 每次启动生成，只用于识别推送给自己的请求
+    private final String instanceId = UUID.randomUUID().toString();
+    private final DiscoveryClient discoveryClient;
+    private final RestTemplate restTemplate;
+
+    @Value("${catalog.replica-sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.application.name:catalog-service}")
+    private String serviceName;
+
+    public CourseReplicaNotifier(DiscoveryClient discoveryClient, RestTemplateBuilder restTemplateBuilder) {
+        this.discoveryClient = discoveryClient;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(1))
+                .setReadTimeout(Duration.ofSeconds(2))
+                .build();
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ORIGIN_HEADER, instanceId);
+        HttpEntity<CourseChangedEvent> request = new HttpEntity<>(event, headers);
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceName)) {
+            try {
+                restTemplate.postForLocation(instance.getUri() + "/internal/course-replicas", request);
+            } catch (Exception e) {
+                log.warn("Failed to replicate course change {} to {}: {}", event, instance.getUri(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.zjgsu.syt.coursecloud.catalog.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已应用的选课人数增量批次（幂等键）
+ * enrollment-service 的 outbox 中继重试时会带着同一个 batchId 重发，主键冲突即说明该批次已生效。
+ */
+@Entity
+@Table(name = "applied_enrollment_batches", indexes = {
+    @Index(name = "idx_applied_batch_applied_at", columnList = "applied_at")
+})
+public class AppliedEnrollmentBatch {
+
+    @Id
+    @Column(name = "batch_id", length = 64)
+    private String batchId;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    public AppliedEnrollmentBatch() {
+        // JPA requires no-arg constructor
+    }
+
+    public AppliedEnrollmentBatch(String batchId) {
+        this.batchId = batchId;
+        this.appliedAt = LocalDateTime.now();
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+}
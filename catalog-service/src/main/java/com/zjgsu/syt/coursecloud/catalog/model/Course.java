@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "courses", indexes = {
-    @Index(name = "idx_course_code", columnList = "code")
+    @Index(name = "idx_course_code", columnList = "code"),
+    @Index(name = "idx_course_created_at_id", columnList = "created_at, id")
 })
 public class Course {
     @Id
@@ -0,0 +1,9 @@
+package com.zjgsu.syt.coursecloud.catalog.repository;
+
+import com.zjgsu.syt.coursecloud.catalog.model.AppliedEnrollmentBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppliedEnrollmentBatchRepository extends JpaRepository<AppliedEnrollmentBatch, String> {
+}
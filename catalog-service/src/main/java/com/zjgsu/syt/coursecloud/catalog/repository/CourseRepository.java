@@ -1,13 +1,51 @@
 package com.zjgsu.syt.coursecloud.catalog.repository;
 
 import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, String> {
     Optional<Course> findByCode(String code);
     boolean existsByCode(String code);
+
+    // ✅ 条件更新：容量检查与计数自增在同一条 SQL 中完成，返回受影响行数（1 = 占座成功）
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolled = c.enrolled + 1 WHERE c.id = :id AND c.enrolled < c.capacity")
+    int reserveSeat(@Param("id") String id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolled = c.enrolled - 1 WHERE c.id = :id AND c.enrolled > 0")
+    int releaseSeat(@Param("id") String id);
+
+    // ✅ 增量更新：按 outbox 汇总的人数变化调整计数，最低为 0
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolled = CASE WHEN c.enrolled + :delta < 0 THEN 0 ELSE c.enrolled + :delta END " +
+            "WHERE c.id = :id")
+    int adjustEnrolled(@Param("id") String id, @Param("delta") int delta);
+
+    // ✅ 键集分页：按 (created_at, id) 排序，用上一页最后一行作为游标，避免 OFFSET 扫描
+    @Query("SELECT c FROM Course c ORDER BY c.createdAt, c.id")
+    List<Course> findFirstPage(Pageable pageable);
+
+    @Query("SELECT c FROM Course c WHERE c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id) " +
+            "ORDER BY c.createdAt, c.id")
+    List<Course> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
+    // 流式读取全部课程，按固定 fetch size 从结果集逐批拉取（MySQL 需配合 useCursorFetch=true）
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Course c ORDER BY c.createdAt, c.id")
+    Stream<Course> streamAllOrdered();
 }
@@ -0,0 +1,80 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 课程读穿缓存
+ * 按 id 缓存已脱离持久化上下文的 Course（含 Instructor、ScheduleSlot），未命中时查库加载，不存在的课程不缓存。
+ * 缓存的实例被所有读者共享，调用方只能读取，不能修改后再保存。
+ * 本实例的写操作按课程 id 精确失效；其他实例的增删改和释放座位经 CourseReplicaNotifier 转发后同样精确失效。
+ * 占座和选课人数增量只改变 enrolled，不在实例间转发，其他实例最迟在 ttl（默认 10s）后可见。
+ */
+@Component
+public class CourseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCache.class);
+
+    private final LoadingCache<String, Course> cache;
+
+    public CourseCache(CourseRepository courseRepository, ObjectProvider<MeterRegistry> meterRegistry,
+                       @Value("${catalog.course-cache.maximum-size:10000}") long maximumSize,
+                       @Value("${catalog.course-cache.ttl-seconds:10}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(id -> courseRepository.findById(id).orElse(null));
+        // LoadingCache 才会导出 cache.load.duration，配合 cache.gets{result=hit|miss} 得到加载延迟和命中率
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "courses"));
+    }
+
+    public Optional<Course> get(String id) {
+        return Optional.ofNullable(cache.get(id));
+    }
+
+    /**
+     * 立即失效，并在当前事务结束后再失效一次：
+     * 事务提交前并发读到旧数据的加载会在第二次失效时被清掉；没有事务时只失效一次
+     */
+    public void evict(String id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+        log.debug("Course cache evicted: {}", id);
+    }
+
+    /**
+     * 其他实例提交的课程写操作
+     */
+    @EventListener
+    public void onReplicaChanged(CourseReplicaChangedEvent event) {
+        cache.invalidate(event.change().courseId());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
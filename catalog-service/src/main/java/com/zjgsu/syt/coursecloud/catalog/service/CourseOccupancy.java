@@ -0,0 +1,20 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * 时间窗口占用查询结果
+ *
+ * @param courses                 与 [from, to) 有重叠的课程，按开始时间、课程代码排序
+ * @param totalExpectedAttendance 这些课程预计到课人数之和
+ */
+public record CourseOccupancy(
+        DayOfWeek dayOfWeek,
+        LocalTime from,
+        LocalTime to,
+        List<OccupiedSlot> courses,
+        int totalExpectedAttendance
+) {
+}
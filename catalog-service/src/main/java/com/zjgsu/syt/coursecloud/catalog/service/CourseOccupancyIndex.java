@@ -0,0 +1,244 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 课程时间占用索引
+ * 按星期几把一天切成固定分钟数的时间桶，每个桶一个 BitSet 标记占用该桶的课程（位号为当天课程的槽位号）。
+ * 查询 [from, to) 时把窗口覆盖的桶做 OR，再按真实起止时间精确过滤，开销只与窗口桶数和当天课程数相关，不访问数据库。
+ * 启动时从 courses 表全量构建，之后在课程增删改的事务提交后增量更新；其他实例的增删改经 CourseReplicaNotifier 转发后同样增量更新，
+ * 转发丢失时由定时全量重建兜底（catalog.index.rebuild-interval-ms）。
+ */
+@Component
+public class CourseOccupancyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseOccupancyIndex.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final Comparator<OccupiedSlot> BY_START = Comparator.comparing(OccupiedSlot::start)
+            .thenComparing(OccupiedSlot::code);
+
+    private final CourseRepository courseRepository;
+    private final CourseService courseService;
+    private final int bucketMinutes;
+    private final long bucketNanos;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<DayOfWeek, DayOccupancy> days = new EnumMap<>(DayOfWeek.class);
+    private final Map<String, OccupiedSlot> byCourseId = new HashMap<>();
+
+    public CourseOccupancyIndex(CourseRepository courseRepository, CourseService courseService,
+                                @Value("${catalog.occupancy.bucket-minutes:15}") int bucketMinutes) {
+        if (bucketMinutes <= 0 || MINUTES_PER_DAY % bucketMinutes != 0) {
+            throw new IllegalArgumentException("Bucket minutes must divide a day evenly: " + bucketMinutes);
+        }
+        this.courseRepository = courseRepository;
+        this.courseService = courseService;
+        this.bucketMinutes = bucketMinutes;
+        this.bucketNanos = TimeUnit.MINUTES.toNanos(bucketMinutes);
+    }
+
+    /**
+     * 查询与 [from, to) 有重叠的课程及预计到课人数合计
+     */
+    public CourseOccupancy query(DayOfWeek dayOfWeek, LocalTime from, LocalTime to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        List<OccupiedSlot> courses = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            DayOccupancy day = days.get(dayOfWeek);
+            if (day != null) {
+                day.collect(bucketOf(from), lastBucketOf(to), from, to, courses);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        courses.sort(BY_START);
+        int attendance = courses.stream().mapToInt(OccupiedSlot::expectedAttendance).sum();
+        return new CourseOccupancy(dayOfWeek, from, to, courses, attendance);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byCourseId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从 courses 表全量重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${catalog.index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        List<OccupiedSlot> slots = new ArrayList<>();
+        courseService.forEachCourse(course -> {
+            if (course.getSchedule() != null) {
+                slots.add(OccupiedSlot.from(course));
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            days.clear();
+            byCourseId.clear();
+            slots.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Course occupancy index built: {} courses, {}-minute buckets", slots.size(), bucketMinutes);
+    }
+
+    /**
+     * 课程写操作提交后同步索引；没有事务时（如测试中直接发布事件）立即执行
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> courseRepository.findById(event.courseId())
+                    .filter(course -> course.getSchedule() != null)
+                    .map(OccupiedSlot::from)
+                    .ifPresentOrElse(this::put, () -> remove(event.courseId()));
+            case DELETED -> remove(event.courseId());
+            default -> {
+                // 座位变化不影响上课时间
+            }
+        }
+    }
+
+    /**
+     * 其他实例提交的课程写操作
+     */
+    @EventListener
+    public void onReplicaChanged(CourseReplicaChangedEvent event) {
+        onCourseChanged(event.change());
+    }
+
+    void put(OccupiedSlot slot) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(slot.courseId());
+            add(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(OccupiedSlot slot) {
+        days.computeIfAbsent(slot.dayOfWeek(), day -> new DayOccupancy(MINUTES_PER_DAY / bucketMinutes))
+                .add(slot, bucketOf(slot.start()), lastBucketOf(slot.end()));
+        byCourseId.put(slot.courseId(), slot);
+    }
+
+    private void removeLocked(String courseId) {
+        OccupiedSlot existing = byCourseId.remove(courseId);
+        if (existing != null) {
+            days.get(existing.dayOfWeek()).remove(courseId, bucketOf(existing.start()), lastBucketOf(existing.end()));
+        }
+    }
+
+    private int bucketOf(LocalTime time) {
+        return (int) (time.toNanoOfDay() / bucketNanos);
+    }
+
+    /**
+     * 结束时间不含在区间内，最后一个桶按结束前一纳秒计算
+     */
+    private int lastBucketOf(LocalTime end) {
+        return (int) ((end.toNanoOfDay() - 1) / bucketNanos);
+    }
+
+    /**
+     * 某一天的占用位图，槽位号在课程删除后回收复用，位图宽度与当天课程数相当
+     */
+    private static final class DayOccupancy {
+
+        private final BitSet[] buckets;
+        private final Map<String, Integer> slotByCourseId = new HashMap<>();
+        private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+        private OccupiedSlot[] slots = new OccupiedSlot[64];
+        private int nextSlot;
+
+        DayOccupancy(int bucketCount) {
+            buckets = new BitSet[bucketCount];
+            Arrays.setAll(buckets, i -> new BitSet());
+        }
+
+        void add(OccupiedSlot slot, int firstBucket, int lastBucket) {
+            int index = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+            if (index == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+            }
+            slots[index] = slot;
+            slotByCourseId.put(slot.courseId(), index);
+            for (int bucket = firstBucket; bucket <= lastBucket; bucket++) {
+                buckets[bucket].set(index);
+            }
+        }
+
+        void remove(String courseId, int firstBucket, int lastBucket) {
+            Integer index = slotByCourseId.remove(courseId);
+            if (index == null) {
+                return;
+            }
+            for (int bucket = firstBucket; bucket <= lastBucket; bucket++) {
+                buckets[bucket].clear(index);
+            }
+            slots[index] = null;
+            freeSlots.push(index);
+        }
+
+        void collect(int firstBucket, int lastBucket, LocalTime from, LocalTime to, List<OccupiedSlot> result) {
+            BitSet matched = new BitSet(nextSlot);
+            for (int bucket = firstBucket; bucket <= lastBucket; bucket++) {
+                matched.or(buckets[bucket]);
+            }
+            for (int index = matched.nextSetBit(0); index >= 0; index = matched.nextSetBit(index + 1)) {
+                // 桶粒度较粗，落在同一桶内但实际不重叠的课程在这里过滤掉
+                if (slots[index].overlaps(from, to)) {
+                    result.add(slots[index]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+/**
+ * 搜索命中的课程摘要，score 越大越相关
+ */
+public record CourseSearchHit(
+        String courseId,
+        String code,
+        String title,
+        String instructorName,
+        float score
+) {
+}
@@ -0,0 +1,512 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 课程搜索倒排索引
+ * 对课程代码、标题和教师姓名分词后按词条前缀（edge n-gram）建立倒排表，中文连续字符按每个起始位置建前缀，支持子串匹配。
+ * 查询的每个词都必须命中（AND），按字段权重累加相关度，前 (page + 1) * size 条用小顶堆选出，不对全部命中结果排序。
+ * 启动时从 courses 表全量构建，之后在课程增删改的事务提交后增量更新；其他实例的增删改由 CourseReplicaNotifier 转发，
+ * 定时全量重建兜底转发丢失的情况。
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSearchIndex.class);
+
+    // 单个词条最多索引的前缀长度，更长的查询词按前缀检索后再逐条核对原文
+    static final int MAX_GRAM = 16;
+
+    private static final float CODE_WEIGHT = 4f;
+    private static final float TITLE_WEIGHT = 2f;
+    private static final float INSTRUCTOR_WEIGHT = 1f;
+
+    private final CourseRepository courseRepository;
+    private final CourseService courseService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docIdByCourseId = new HashMap<>();
+    private Doc[] docs = new Doc[1024];
+    private int nextDocId;
+
+    public CourseSearchIndex(CourseRepository courseRepository, CourseService courseService) {
+        this.courseRepository = courseRepository;
+        this.courseService = courseService;
+    }
+
+    /**
+     * 按相关度分页搜索，相关度相同时按文档 id（即进入索引的先后）排列
+     *
+     * @param page 页号，从 0 开始
+     */
+    public CourseSearchPage search(String query, int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new IllegalArgumentException("Page must be >= 0 and size must be positive");
+        }
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return new CourseSearchPage(List.of(), 0, page, size);
+        }
+        int limit = Math.addExact(Math.multiplyExact(page, size), size);
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(gramOf(term));
+                if (list == null) {
+                    return new CourseSearchPage(List.of(), 0, page, size);
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            // 倒排表按文档 id 升序：以最短的表为候选，在其余表中向后跳跃查找（galloping），游标只前进不回退
+            Postings shortest = lists.get(0);
+            int[] cursors = new int[lists.size()];
+            List<String> longTerms = terms.stream().filter(term -> term.codePointCount(0, term.length()) > MAX_GRAM).toList();
+            TopK top = new TopK(Math.min(limit, shortest.size));
+            int total = 0;
+            candidates:
+            for (int slot = 0; slot < shortest.size; slot++) {
+                int doc = shortest.docs[slot];
+                float score = shortest.scores[slot];
+                for (int t = 1; t < lists.size(); t++) {
+                    Postings list = lists.get(t);
+                    int i = list.seek(doc, cursors[t]);
+                    cursors[t] = i;
+                    if (i == list.size) {
+                        break candidates;
+                    }
+                    if (list.docs[i] != doc) {
+                        continue candidates;
+                    }
+                    score += list.scores[i];
+                }
+                if (!longTerms.isEmpty() && !docs[doc].containsAll(longTerms)) {
+                    continue;
+                }
+                total++;
+                top.offer(doc, score);
+            }
+
+            List<CourseSearchHit> hits = new ArrayList<>(size);
+            for (int rank = page * size; rank < top.size(); rank++) {
+                hits.add(docs[top.doc(rank)].hit(top.score(rank)));
+            }
+            return new CourseSearchPage(List.copyOf(hits), total, page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdByCourseId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从 courses 表全量重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${catalog.index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        List<Doc> loaded = new ArrayList<>();
+        courseService.forEachCourse(course -> loaded.add(Doc.from(course)));
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docIdByCourseId.clear();
+            docs = new Doc[Math.max(1024, loaded.size())];
+            nextDocId = 0;
+            loaded.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Course search index built: {} courses, {} terms", loaded.size(), postings.size());
+    }
+
+    /**
+     * 课程写操作提交后同步索引；没有事务时（如测试中直接发布事件）立即执行
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> courseRepository.findById(event.courseId())
+                    .map(Doc::from)
+                    .ifPresentOrElse(this::put, () -> remove(event.courseId()));
+            case DELETED -> remove(event.courseId());
+            default -> {
+                // 座位变化不影响搜索字段
+            }
+        }
+    }
+
+    /**
+     * 其他实例提交的课程写操作
+     */
+    @EventListener
+    public void onReplicaChanged(CourseReplicaChangedEvent event) {
+        onCourseChanged(event.change());
+    }
+
+    void put(Doc doc) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(doc.courseId());
+            add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Doc doc) {
+        // 文档 id 只增不复用，倒排表追加后天然有序
+        int docId = nextDocId++;
+        if (docId == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+        docs[docId] = doc;
+        docIdByCourseId.put(doc.courseId(), docId);
+        doc.grams().forEach((gram, score) -> postings.computeIfAbsent(gram, g -> new Postings()).add(docId, score));
+    }
+
+    private void removeLocked(String courseId) {
+        Integer docId = docIdByCourseId.remove(courseId);
+        if (docId == null) {
+            return;
+        }
+        for (String gram : docs[docId].grams().keySet()) {
+            Postings list = postings.get(gram);
+            list.remove(docId);
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        docs[docId] = null;
+        if (nextDocId - docIdByCourseId.size() > Math.max(1024, docIdByCourseId.size())) {
+            compact();
+        }
+    }
+
+    /**
+     * 删除/更新留下的空 id 超过存活文档数时重新编号；映射保持单调，倒排表原地替换后仍然有序
+     */
+    private void compact() {
+        int[] remap = new int[nextDocId];
+        int live = 0;
+        for (int docId = 0; docId < nextDocId; docId++) {
+            if (docs[docId] != null) {
+                remap[docId] = live;
+                docs[live] = docs[docId];
+                docIdByCourseId.put(docs[live].courseId(), live);
+                live++;
+            }
+        }
+        Arrays.fill(docs, live, nextDocId, null);
+        nextDocId = live;
+        for (Postings list : postings.values()) {
+            for (int i = 0; i < list.size; i++) {
+                list.docs[i] = remap[list.docs[i]];
+            }
+        }
+        log.debug("Course search index compacted: {} documents", live);
+    }
+
+    private static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (Token token : tokenize(query)) {
+            terms.add(token.text());
+        }
+        return List.copyOf(terms);
+    }
+
+    private static String gramOf(String term) {
+        return term.codePointCount(0, term.length()) > MAX_GRAM
+                ? term.substring(0, term.offsetByCodePoints(0, MAX_GRAM))
+                : term;
+    }
+
+    /**
+     * 转小写后按字母/数字连续段切分；汉字与非汉字之间也切开，汉字段单独标记以便按子串建索引
+     */
+    static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder();
+        boolean currentHan = false;
+        for (int i = 0; i < lower.length(); ) {
+            int codePoint = lower.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (!Character.isLetterOrDigit(codePoint)) {
+                flush(current, currentHan, tokens);
+                continue;
+            }
+            boolean han = Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+            if (han != currentHan) {
+                flush(current, currentHan, tokens);
+                currentHan = han;
+            }
+            current.appendCodePoint(codePoint);
+        }
+        flush(current, currentHan, tokens);
+        return tokens;
+    }
+
+    private static void flush(StringBuilder current, boolean han, List<Token> tokens) {
+        if (!current.isEmpty()) {
+            tokens.add(new Token(current.toString(), han));
+            current.setLength(0);
+        }
+    }
+
+    record Token(String text, boolean han) {}
+
+    /**
+     * 索引中的一门课程，text 为三个字段小写后的拼接，用于核对超长查询词
+     */
+    record Doc(String courseId, String code, String title, String instructorName, String text) {
+
+        static Doc from(Course course) {
+            String instructorName = course.getInstructor() != null ? course.getInstructor().getName() : null;
+            return of(course.getId(), course.getCode(), course.getTitle(), instructorName);
+        }
+
+        static Doc of(String courseId, String code, String title, String instructorName) {
+            String text = String.join(" ", String.valueOf(code), String.valueOf(title), String.valueOf(instructorName))
+                    .toLowerCase(Locale.ROOT);
+            return new Doc(courseId, code, title, instructorName, text);
+        }
+
+        /**
+         * 词条前缀 -> 该课程在此前缀上的得分（各字段取最高）；整词命中加倍，汉字段中间位置起始的子串减半
+         */
+        Map<String, Float> grams() {
+            Map<String, Float> grams = new HashMap<>();
+            collect(code, CODE_WEIGHT, grams);
+            collect(title, TITLE_WEIGHT, grams);
+            collect(instructorName, INSTRUCTOR_WEIGHT, grams);
+            return grams;
+        }
+
+        boolean containsAll(List<String> terms) {
+            for (String term : terms) {
+                if (!text.contains(term)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        CourseSearchHit hit(float score) {
+            return new CourseSearchHit(courseId, code, title, instructorName, score);
+        }
+
+        private static void collect(String field, float weight, Map<String, Float> grams) {
+            for (Token token : tokenize(field)) {
+                int[] codePoints = token.text().codePoints().toArray();
+                int starts = token.han() ? codePoints.length : 1;
+                for (int from = 0; from < starts; from++) {
+                    float base = from == 0 ? weight : weight / 2;
+                    int maxLength = Math.min(codePoints.length - from, MAX_GRAM);
+                    for (int length = 1; length <= maxLength; length++) {
+                        float score = from == 0 && length == codePoints.length ? base * 2 : base;
+                        grams.merge(new String(codePoints, from, length), score, Math::max);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 一个词条前缀的倒排表，按文档 id 升序
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private float[] scores = new float[4];
+        private int size;
+
+        void add(int doc, float score) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            docs[size] = doc;
+            scores[size] = score;
+            size++;
+        }
+
+        void remove(int doc) {
+            int i = seek(doc, 0);
+            if (i < size && docs[i] == doc) {
+                System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+                System.arraycopy(scores, i + 1, scores, i, size - i - 1);
+                size--;
+            }
+        }
+
+        /**
+         * 从 from 开始找第一个 id >= doc 的位置（不存在时返回 size）：先按 1, 2, 4... 步长跳跃确定区间，再二分
+         */
+        int seek(int doc, int from) {
+            int high = from;
+            int step = 1;
+            while (high < size && docs[high] < doc) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int low = from;
+            high = Math.min(high, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (docs[mid] < doc) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * 保留得分最高的 capacity 个文档的小顶堆；得分相同时文档 id 小的优先
+     */
+    private static final class TopK {
+
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+        private boolean sorted;
+
+        TopK(int capacity) {
+            docs = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        void offer(int doc, float score) {
+            if (size < docs.length) {
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && worse(docs[0], scores[0], doc, score)) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown(0, size);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * 第 rank 名（从 0 开始）的文档，首次调用时原地堆排序为降序
+         */
+        int doc(int rank) {
+            sort();
+            return docs[rank];
+        }
+
+        float score(int rank) {
+            sort();
+            return scores[rank];
+        }
+
+        private void sort() {
+            if (sorted) {
+                return;
+            }
+            // 小顶堆逐个把堆顶（最差）换到末尾，结果即为从好到差
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            sorted = true;
+        }
+
+        private static boolean worse(int doc1, float score1, int doc2, float score2) {
+            return score1 < score2 || (score1 == score2 && doc1 > doc2);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(docs[i], scores[i], docs[parent], scores[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i, int end) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= end) {
+                    return;
+                }
+                if (child + 1 < end && worse(docs[child + 1], scores[child + 1], docs[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(docs[child], scores[child], docs[i], scores[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import java.util.List;
+
+/**
+ * 按相关度排序后的一页搜索结果
+ *
+ * @param total 命中总数
+ */
+public record CourseSearchPage(
+        List<CourseSearchHit> hits,
+        int total,
+        int page,
+        int size
+) {
+    public boolean hasMore() {
+        return (long) (page + 1) * size < total;
+    }
+}
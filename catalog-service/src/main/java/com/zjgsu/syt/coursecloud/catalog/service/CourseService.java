@@ -1,21 +1,46 @@
 package com.zjgsu.syt.coursecloud.catalog.service;
 
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangeType;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.model.AppliedEnrollmentBatch;
 import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.repository.AppliedEnrollmentBatchRepository;
 import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final AppliedEnrollmentBatchRepository appliedBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseCache courseCache;
 
-    public CourseService(CourseRepository courseRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CourseService(CourseRepository courseRepository, AppliedEnrollmentBatchRepository appliedBatchRepository,
+                         ApplicationEventPublisher eventPublisher, CourseCache courseCache) {
         this.courseRepository = courseRepository;
+        this.appliedBatchRepository = appliedBatchRepository;
+        this.eventPublisher = eventPublisher;
+        this.courseCache = courseCache;
     }
 
     /**
@@ -26,10 +51,44 @@ public class CourseService {
     }
 
     /**
-     * 根据ID获取课程
+     * 键集分页获取课程，afterCreatedAt/afterId 为上一页最后一行，均为 null 时返回第一页
+     */
+    @Transactional(readOnly = true)
+    public List<Course> getCoursesPage(LocalDateTime afterCreatedAt, String afterId, int size) {
+        if (afterCreatedAt == null || afterId == null) {
+            return courseRepository.findFirstPage(PageRequest.ofSize(size));
+        }
+        return courseRepository.findPageAfter(afterCreatedAt, afterId, PageRequest.ofSize(size));
+    }
+
+    /**
+     * 按 (createdAt, id) 顺序逐行处理全部课程，处理完的实体立即从持久化上下文中移除，内存占用不随课程数增长
      */
+    @Transactional(readOnly = true)
+    public void forEachCourse(Consumer<Course> action) {
+        try (Stream<Course> courses = courseRepository.streamAllOrdered()) {
+            courses.forEach(course -> {
+                action.accept(course);
+                entityManager.detach(course);
+            });
+        }
+    }
+
+    /**
+     * 根据ID获取课程，经过 CourseCache；返回的实例被缓存共享，只读
+     * 命中缓存时不开启事务、不占用数据库连接
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Course> getCourseById(String id) {
-        return courseRepository.findById(id);
+        return courseCache.get(id);
+    }
+
+    /**
+     * 批量获取课程，一次 IN 查询
+     */
+    @Transactional(readOnly = true)
+    public List<Course> getCoursesByIds(Collection<String> ids) {
+        return courseRepository.findAllById(ids);
     }
 
     /**
@@ -47,7 +106,9 @@ public class CourseService {
         if (courseRepository.findByCode(course.getCode()).isPresent()) {
             throw new IllegalArgumentException("Course with code " + course.getCode() + " already exists");
         }
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getId(), CourseChangeType.CREATED));
+        return saved;
     }
 
     /**
@@ -62,7 +123,10 @@ public class CourseService {
                     existingCourse.setSchedule(updatedCourse.getSchedule());
                     existingCourse.setCapacity(updatedCourse.getCapacity());
                     existingCourse.setEnrolled(updatedCourse.getEnrolled());
-                    return courseRepository.save(existingCourse);
+                    Course saved = courseRepository.save(existingCourse);
+                    courseCache.evict(id);
+                    eventPublisher.publishEvent(new CourseChangedEvent(id, CourseChangeType.UPDATED));
+                    return saved;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Course with id " + id + " not found"));
     }
@@ -75,28 +139,62 @@ public class CourseService {
             throw new IllegalArgumentException("Course with id " + id + " not found");
         }
         courseRepository.deleteById(id);
+        courseCache.evict(id);
+        eventPublisher.publishEvent(new CourseChangedEvent(id, CourseChangeType.DELETED));
     }
 
     /**
-     * 增加课程的选课人数
+     * 原子占座：一条条件 UPDATE 完成容量检查和计数，避免并发下的读-改-写覆盖
+     * 选课容量以 enrollment-service 的座位台账为准，选课、退课不经过这里，课程的 enrolled 由
+     * applyEnrollmentDeltas 按 outbox 增量追平；本方法与 releaseSeat 只供不经过选课服务的内部调用方直接调整人数
      */
-    public void incrementEnrolled(String courseId) {
-        courseRepository.findById(courseId).ifPresent(course -> {
-            course.setEnrolled(course.getEnrolled() + 1);
-            courseRepository.save(course);
-        });
+    public SeatReservationResult reserveSeat(String courseId) {
+        if (courseRepository.reserveSeat(courseId) == 1) {
+            courseCache.evict(courseId);
+            return SeatReservationResult.RESERVED;
+        }
+        // 只有占座失败时才需要区分“已满”和“不存在”
+        return courseRepository.existsById(courseId)
+                ? SeatReservationResult.FULL
+                : SeatReservationResult.NOT_FOUND;
     }
 
     /**
-     * 减少课程的选课人数
+     * 释放一个座位，确实释放了座位时通知订阅方递补候补
      */
-    public void decrementEnrolled(String courseId) {
-        courseRepository.findById(courseId).ifPresent(course -> {
-            if (course.getEnrolled() > 0) {
-                course.setEnrolled(course.getEnrolled() - 1);
-                courseRepository.save(course);
+    public SeatReleaseResult releaseSeat(String courseId) {
+        if (courseRepository.releaseSeat(courseId) == 1) {
+            courseCache.evict(courseId);
+            eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangeType.SEAT_RELEASED));
+            return SeatReleaseResult.RELEASED;
+        }
+        // 只有释放失败时才需要区分“无人选课”和“不存在”
+        return courseRepository.existsById(courseId)
+                ? SeatReleaseResult.NONE_ENROLLED
+                : SeatReleaseResult.NOT_FOUND;
+    }
+
+    /**
+     * 应用一批选课人数增量，幂等键与计数更新在同一事务内提交
+     * 课程的 enrolled 是 enrollment-service 座位台账的派生副本，由此最终一致地追平，不参与选课准入
+     *
+     * @param batchId 批次幂等键，重复提交只生效一次
+     * @param deltas  courseId -> 人数变化，不存在的课程和空值忽略
+     * @return false 如果该批次此前已经应用过
+     */
+    public boolean applyEnrollmentDeltas(String batchId, Map<String, Integer> deltas) {
+        if (appliedBatchRepository.existsById(batchId)) {
+            return false;
+        }
+        // 先写幂等键并立即 flush：同一批次被并发重放时，后到者在主键冲突处失败并整体回滚
+        appliedBatchRepository.saveAndFlush(new AppliedEnrollmentBatch(batchId));
+        // 按 courseId 顺序更新，避免两个批次交叉加行锁造成死锁
+        new TreeMap<>(deltas).forEach((courseId, delta) -> {
+            if (delta != null && delta != 0 && courseRepository.adjustEnrolled(courseId, delta) == 1) {
+                courseCache.evict(courseId);
             }
         });
+        return true;
     }
 
     /**
@@ -0,0 +1,35 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * 占用索引中的一门课程：只保留时间段和展示所需的字段，与 JPA 实体解耦
+ */
+public record OccupiedSlot(
+        String courseId,
+        String code,
+        String title,
+        DayOfWeek dayOfWeek,
+        LocalTime start,
+        LocalTime end,
+        int expectedAttendance
+) {
+    static OccupiedSlot from(Course course) {
+        return new OccupiedSlot(
+                course.getId(),
+                course.getCode(),
+                course.getTitle(),
+                course.getSchedule().getDayOfWeek(),
+                course.getSchedule().getStart(),
+                course.getSchedule().getEnd(),
+                course.getSchedule().expectedAttendance()
+        );
+    }
+
+    boolean overlaps(LocalTime from, LocalTime to) {
+        return start.isBefore(to) && end.isAfter(from);
+    }
+}
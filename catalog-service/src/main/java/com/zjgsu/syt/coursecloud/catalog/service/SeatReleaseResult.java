@@ -0,0 +1,10 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+/**
+ * 释放座位结果
+ */
+public enum SeatReleaseResult {
+    RELEASED,
+    NONE_ENROLLED,
+    NOT_FOUND
+}
@@ -0,0 +1,10 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+/**
+ * 占座结果
+ */
+public enum SeatReservationResult {
+    RESERVED,
+    FULL,
+    NOT_FOUND
+}
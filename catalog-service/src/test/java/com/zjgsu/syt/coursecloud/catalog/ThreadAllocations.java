@@ -0,0 +1,22 @@
+package com.zjgsu.syt.coursecloud.catalog;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 基准测试共用：读取当前线程累计分配的字节数（HotSpot 的 com.sun.management.ThreadMXBean）
+ */
+public final class ThreadAllocations {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private ThreadAllocations() {
+    }
+
+    /**
+     * @return 当前线程自启动以来分配的字节数，两次读数之差即为其间的分配量
+     */
+    public static long current() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+}
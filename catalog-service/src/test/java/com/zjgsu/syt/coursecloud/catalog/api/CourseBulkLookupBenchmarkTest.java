@@ -0,0 +1,99 @@
+package com.zjgsu.syt.coursecloud.catalog.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zjgsu.syt.coursecloud.catalog.controller.CourseBatchRequest;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 100 次单个课程查询 vs 1 次批量查询（进程内 MockMvc，不含网络往返；真实调用每次还要再加一个 RTT）
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseBulkLookupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseBulkLookupBenchmarkTest.class);
+
+    private static final int COURSES = 100;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    void singleVersusBulkLookup() throws Exception {
+        List<String> ids = new ArrayList<>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course(
+                    String.format("BLK%03d", i),
+                    "Bulk lookup course " + i,
+                    new Instructor("inst-" + i, "Instructor " + i, "inst" + i + "@example.com"),
+                    new ScheduleSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), 50),
+                    60);
+            ids.add(courseRepository.save(course).getId());
+        }
+        String bulkBody = objectMapper.writeValueAsString(new CourseBatchRequest(ids));
+
+        long[] single = new long[ROUNDS];
+        long[] bulk = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String id : ids) {
+                mockMvc.perform(get("/api/courses/{id}", id)).andExpect(status().isOk());
+            }
+            single[round] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            mockMvc.perform(post("/api/courses/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(bulkBody))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.count").value(COURSES));
+            bulk[round] = System.nanoTime() - start;
+        }
+
+        report("100 x GET /api/courses/{id}", single);
+        report("1 x POST /api/courses/batch", bulk);
+        assertTrue(median(bulk) < median(single));
+    }
+
+    private static void report(String label, long[] samples) {
+        log.info(String.format("%s: median=%.2fms", label, median(samples) / 1_000_000.0));
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
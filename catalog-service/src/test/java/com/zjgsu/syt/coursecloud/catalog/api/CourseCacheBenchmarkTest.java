@@ -0,0 +1,91 @@
+package com.zjgsu.syt.coursecloud.catalog.api;
+
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import com.zjgsu.syt.coursecloud.catalog.service.CourseCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/courses/{id} 吞吐量：每次请求前清空课程缓存（等同于加缓存前每次查库） vs 缓存命中
+ * 进程内 MockMvc + H2，真实部署中查 MySQL 还要再加一次网络往返，差距会更大
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseCacheBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCacheBenchmarkTest.class);
+
+    private static final int COURSES = 200;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseCache courseCache;
+
+    @Test
+    void cachedVersusUncachedLookup() throws Exception {
+        List<String> ids = new ArrayList<>(COURSES);
+        for (int i = 0; i < COURSES; i++) {
+            Course course = new Course(
+                    String.format("CCB%03d", i),
+                    "Cached lookup course " + i,
+                    new Instructor("inst-" + i, "Instructor " + i, "inst" + i + "@example.com"),
+                    new ScheduleSlot(DayOfWeek.TUESDAY, LocalTime.of(14, 0), LocalTime.of(16, 0), 50),
+                    60);
+            ids.add(courseRepository.save(course).getId());
+        }
+
+        // 预热
+        measure(ids, true);
+        measure(ids, false);
+
+        double uncached = 0;
+        double cached = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            uncached = Math.max(uncached, measure(ids, true));
+            cached = Math.max(cached, measure(ids, false));
+        }
+
+        log.info(String.format("GET /api/courses/{id} without cache: %.0f req/s", uncached));
+        log.info(String.format("GET /api/courses/{id} with cache:    %.0f req/s", cached));
+        assertTrue(cached > uncached);
+    }
+
+    /**
+     * 顺序请求全部课程一遍，返回每秒请求数
+     */
+    private double measure(List<String> ids, boolean bypassCache) throws Exception {
+        long start = System.nanoTime();
+        for (String id : ids) {
+            if (bypassCache) {
+                courseCache.invalidateAll();
+            }
+            mockMvc.perform(get("/api/courses/{id}", id)).andExpect(status().isOk());
+        }
+        return ids.size() / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+}
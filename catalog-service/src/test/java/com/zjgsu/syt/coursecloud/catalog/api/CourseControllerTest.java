@@ -1,6 +1,8 @@
 package com.zjgsu.syt.coursecloud.catalog.api;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.zjgsu.syt.coursecloud.catalog.controller.CourseRequest;
 import com.zjgsu.syt.coursecloud.catalog.controller.DayOfWeekValue;
 import org.junit.jupiter.api.Test;
@@ -9,9 +11,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -50,4 +56,85 @@ class CourseControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Introduction to Microservices"));
     }
+
+    @Test
+    void courseIsServedAsCborWhenRequested() throws Exception {
+        CourseRequest request = new CourseRequest(
+                "CST102",
+                "Distributed Systems",
+                "inst-002",
+                "Dr. Li",
+                "li@example.com",
+                DayOfWeekValue.TUESDAY,
+                "14:00",
+                "16:00",
+                60,
+                50
+        );
+        MvcResult created = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String id = objectMapper.readTree(created.getResponse().getContentAsByteArray()).at("/data/id").asText();
+
+        MvcResult result = mockMvc.perform(get("/api/courses/{id}", id)
+                        .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("SUCCESS", body.get("status").asText());
+        assertEquals("CST102", body.at("/data/code").asText());
+        assertEquals("14:00", body.at("/data/start").asText());
+    }
+
+    @Test
+    void releasingSeatDistinguishesMissingAndEmptyCourse() throws Exception {
+        CourseRequest request = new CourseRequest(
+                "CST103",
+                "Cloud Native Patterns",
+                "inst-003",
+                "Dr. Wang",
+                "wang@example.com",
+                DayOfWeekValue.WEDNESDAY,
+                "08:00",
+                "10:00",
+                40,
+                30
+        );
+        MvcResult created = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String id = objectMapper.readTree(created.getResponse().getContentAsByteArray()).at("/data/id").asText();
+
+        mockMvc.perform(delete("/internal/course-reservations/{courseId}", "missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.result").value("NOT_FOUND"));
+        mockMvc.perform(delete("/internal/course-reservations/{courseId}", id))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.result").value("NONE_ENROLLED"));
+
+        mockMvc.perform(post("/internal/course-reservations/{courseId}", id))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/internal/course-reservations/{courseId}", id))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void enrollmentDeltasWithNullCountAreRejected() throws Exception {
+        mockMvc.perform(post("/internal/enrollment-deltas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"batchId\":\"null-delta\",\"deltas\":{\"course-1\":null}}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/internal/enrollment-deltas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"batchId\":\"missing-course\",\"deltas\":{\"missing\":1}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.applied").value(true));
+    }
 }
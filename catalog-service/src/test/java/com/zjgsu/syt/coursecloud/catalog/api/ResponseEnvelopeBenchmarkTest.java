@@ -0,0 +1,116 @@
+package com.zjgsu.syt.coursecloud.catalog.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zjgsu.syt.coursecloud.catalog.ThreadAllocations;
+import com.zjgsu.syt.coursecloud.catalog.controller.ApiResponse;
+import com.zjgsu.syt.coursecloud.catalog.controller.CourseResponse;
+import com.zjgsu.syt.coursecloud.catalog.controller.InstanceIdentity;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 响应信封每次请求的分配字节数和耗时
+ * 1. 只比较信封本身：原来的 HashMap 信封（每次 getenv 取主机名） vs ApiResponse（启动时解析的实例标识）
+ * 2. 完整的 GET /api/courses/{id}（MockMvc，进程内）每次请求的分配和延迟，供改动前后对照
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ResponseEnvelopeBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    private static final int REQUESTS = 2_000;
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseEnvelopeBenchmarkTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InstanceIdentity instance;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    void envelopeAllocationsAndLatency() throws Exception {
+        Course course = courseRepository.save(new Course(
+                "ENV101",
+                "Envelope benchmark",
+                new Instructor("inst-env", "Dr. Env", "env@example.com"),
+                new ScheduleSlot(DayOfWeek.FRIDAY, LocalTime.of(8, 0), LocalTime.of(10, 0), 30),
+                60));
+        CourseResponse data = CourseResponse.from(course);
+
+        Sample legacy = measure(() -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("port", instance.port());
+            response.put("hostname", legacyHostname());
+            response.put("data", data);
+            response.put("status", "SUCCESS");
+            return objectMapper.writeValueAsBytes(response);
+        }, ITERATIONS);
+        Sample envelope = measure(() -> objectMapper.writeValueAsBytes(ApiResponse.success(instance, data)), ITERATIONS);
+        Sample request = measure(() -> mockMvc.perform(get("/api/courses/{id}", course.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hostname").value(instance.hostname())), REQUESTS);
+
+        log.info(String.format("HashMap envelope:           %6d B/op %8.0f ns/op", legacy.bytes(), legacy.nanos()));
+        log.info(String.format("ApiResponse envelope:       %6d B/op %8.0f ns/op", envelope.bytes(), envelope.nanos()));
+        log.info(String.format("GET /api/courses/{id}:      %6d B/op %8.0f ns/op", request.bytes(), request.nanos()));
+        assertTrue(envelope.bytes() < legacy.bytes());
+    }
+
+    /**
+     * 原 getHostname() 的主路径：每次请求读取环境变量
+     */
+    private String legacyHostname() {
+        String hostname = System.getenv("HOSTNAME");
+        return hostname != null && !hostname.isEmpty() ? hostname : instance.hostname();
+    }
+
+    private static Sample measure(Action action, int iterations) throws Exception {
+        for (int i = 0; i < Math.min(WARMUP, iterations); i++) {
+            action.run();
+        }
+        long bytes = ThreadAllocations.current();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        long nanos = System.nanoTime() - start;
+        return new Sample((ThreadAllocations.current() - bytes) / iterations, (double) nanos / iterations);
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        Object run() throws Exception;
+    }
+
+    private record Sample(long bytes, double nanos) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangeType;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseCacheTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseCache courseCache;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.deleteAll();
+        courseCache.invalidateAll();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        Course created = courseService.createCourse(newCourse("CCH101"));
+
+        Course first = courseService.getCourseById(created.getId()).orElseThrow();
+        Course second = courseService.getCourseById(created.getId()).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals("Dr. Zhang", second.getInstructor().getName());
+        assertEquals(DayOfWeek.MONDAY, second.getSchedule().getDayOfWeek());
+    }
+
+    @Test
+    void seatCountChangesEvictTheCourse() {
+        String id = courseService.createCourse(newCourse("CCH102")).getId();
+        assertEquals(0, courseService.getCourseById(id).orElseThrow().getEnrolled());
+
+        courseService.reserveSeat(id);
+        assertEquals(1, courseService.getCourseById(id).orElseThrow().getEnrolled());
+
+        courseService.reserveSeat(id);
+        assertEquals(2, courseService.getCourseById(id).orElseThrow().getEnrolled());
+
+        courseService.releaseSeat(id);
+        assertEquals(1, courseService.getCourseById(id).orElseThrow().getEnrolled());
+
+        courseService.applyEnrollmentDeltas("cache-batch-1", Map.of(id, 5));
+        assertEquals(6, courseService.getCourseById(id).orElseThrow().getEnrolled());
+    }
+
+    /**
+     * 另一个实例直接写库：本实例在收到转发的变更前仍返回缓存，收到后重新加载
+     */
+    @Test
+    void changesFromOtherReplicasEvictTheCourse() {
+        String id = courseService.createCourse(newCourse("CCH104")).getId();
+        courseService.getCourseById(id).orElseThrow();
+
+        Course stored = courseRepository.findById(id).orElseThrow();
+        stored.setTitle("Changed Elsewhere");
+        courseRepository.save(stored);
+        assertEquals("Distributed Systems", courseService.getCourseById(id).orElseThrow().getTitle());
+
+        eventPublisher.publishEvent(new CourseReplicaChangedEvent(new CourseChangedEvent(id, CourseChangeType.UPDATED)));
+        assertEquals("Changed Elsewhere", courseService.getCourseById(id).orElseThrow().getTitle());
+    }
+
+    @Test
+    void updatesAndDeletesEvictTheCourse() {
+        String id = courseService.createCourse(newCourse("CCH103")).getId();
+        courseService.getCourseById(id).orElseThrow();
+
+        Course changes = newCourse("CCH103");
+        changes.setTitle("Cloud Native Systems");
+        courseService.updateCourse(id, changes);
+        assertEquals("Cloud Native Systems", courseService.getCourseById(id).orElseThrow().getTitle());
+
+        courseService.deleteCourse(id);
+        assertTrue(courseService.getCourseById(id).isEmpty());
+    }
+
+    private static Course newCourse(String code) {
+        return new Course(
+                code,
+                "Distributed Systems",
+                new Instructor("inst-001", "Dr. Zhang", "zhang@example.com"),
+                new ScheduleSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), 40),
+                60
+        );
+    }
+}
@@ -0,0 +1,155 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.controller.CourseResponse;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 课程列表：全量加载 vs 键集分页 vs 流式读取，10k / 100k / 1M 行的耗时和峰值堆占用
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseListingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseListingBenchmarkTest.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void listingCostByCatalogSize() {
+        for (int rows : new int[]{10_000, 100_000, 1_000_000}) {
+            seed(rows);
+
+            measure("findAll", rows, () -> courseRepository.findAll().stream().map(CourseResponse::from).toList().size());
+
+            measure("keyset", rows, () -> {
+                int count = 0;
+                LocalDateTime afterCreatedAt = null;
+                String afterId = null;
+                List<Course> page;
+                do {
+                    page = courseService.getCoursesPage(afterCreatedAt, afterId, PAGE_SIZE);
+                    for (Course course : page) {
+                        CourseResponse.from(course);
+                        count++;
+                    }
+                    if (!page.isEmpty()) {
+                        afterCreatedAt = page.get(page.size() - 1).getCreatedAt();
+                        afterId = page.get(page.size() - 1).getId();
+                    }
+                } while (page.size() == PAGE_SIZE);
+                return count;
+            });
+
+            measure("stream", rows, () -> {
+                AtomicLong count = new AtomicLong();
+                courseService.forEachCourse(course -> {
+                    CourseResponse.from(course);
+                    count.incrementAndGet();
+                });
+                return (int) count.get();
+            });
+        }
+    }
+
+    private void measure(String label, int rows, Supplier<Integer> listing) {
+        HeapSampler sampler = new HeapSampler();
+        sampler.start();
+        long start = System.nanoTime();
+        int count = listing.get();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long peak = sampler.stopAndGetPeak();
+        assertEquals(rows, count);
+        log.info(String.format("%-8s rows=%-8d elapsed=%6.2fs peakHeap=%5dMB", label, rows, seconds, peak / (1024 * 1024)));
+    }
+
+    private void seed(int rows) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM courses");
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{
+                    UUID.randomUUID().toString(), "C" + i, "Course " + i,
+                    "inst-" + (i % 100), "Instructor " + (i % 100), "inst" + (i % 100) + "@example.com",
+                    "MONDAY", "09:00:00", "11:00:00", 50, 100, 0,
+                    Timestamp.valueOf(base.plusNanos(i * 1000L))
+            });
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbc.batchUpdate("INSERT INTO courses (id, code, title, instructor_id, instructor_name, " +
+                        "instructor_email, day_of_week, start_time, end_time, expected_attendance, capacity, " +
+                        "enrolled, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        System.gc();
+    }
+
+    /**
+     * 后台线程定期采样已用堆内存，近似峰值
+     */
+    private static final class HeapSampler extends Thread {
+        private volatile boolean running = true;
+        private long peak;
+
+        HeapSampler() {
+            setDaemon(true);
+            System.gc();
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (running) {
+                peak = Math.max(peak, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        long stopAndGetPeak() {
+            running = false;
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return peak;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 时间窗口占用查询：内存占用索引 vs 等价的 JPQL 查询（H2），1k / 10k / 100k 门课程
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class, CourseOccupancyIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseOccupancyBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseOccupancyBenchmarkTest.class);
+
+    private static final String OVERLAP_JPQL = "SELECT c.id, c.schedule.expectedAttendance FROM Course c " +
+            "WHERE c.schedule.dayOfWeek = :day AND c.schedule.startTime < :to AND c.schedule.endTime > :from";
+    private static final int QUERIES = 2_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private CourseOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void indexAgainstJpql() {
+        Random random = new Random(42);
+        for (int rows : new int[]{1_000, 10_000, 100_000}) {
+            seed(rows, random);
+            long start = System.nanoTime();
+            occupancyIndex.rebuild();
+            log.info(String.format("rows=%-7d index build=%.1fms", rows, (System.nanoTime() - start) / 1_000_000.0));
+
+            List<Window> windows = new ArrayList<>(QUERIES);
+            for (int i = 0; i < QUERIES; i++) {
+                windows.add(Window.random(random));
+            }
+
+            double jpqlMicros = Double.MAX_VALUE;
+            double indexMicros = Double.MAX_VALUE;
+            long jpqlChecksum = 0;
+            long indexChecksum = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                start = System.nanoTime();
+                jpqlChecksum = transactionTemplate.execute(status -> {
+                    long checksum = 0;
+                    for (Window window : windows) {
+                        List<Object[]> result = entityManager.createQuery(OVERLAP_JPQL, Object[].class)
+                                .setParameter("day", window.day())
+                                .setParameter("from", window.from())
+                                .setParameter("to", window.to())
+                                .getResultList();
+                        checksum += result.size() * 1_000_000L
+                                + result.stream().mapToInt(row -> (Integer) row[1]).sum();
+                    }
+                    return checksum;
+                });
+                jpqlMicros = Math.min(jpqlMicros, (System.nanoTime() - start) / 1_000.0 / QUERIES);
+
+                start = System.nanoTime();
+                long checksum = 0;
+                for (Window window : windows) {
+                    CourseOccupancy occupancy = occupancyIndex.query(window.day(), window.from(), window.to());
+                    checksum += occupancy.courses().size() * 1_000_000L + occupancy.totalExpectedAttendance();
+                }
+                indexChecksum = checksum;
+                indexMicros = Math.min(indexMicros, (System.nanoTime() - start) / 1_000.0 / QUERIES);
+            }
+
+            log.info(String.format("rows=%-7d jpql=%10.1fus/query index=%8.1fus/query", rows, jpqlMicros, indexMicros));
+            assertEquals(jpqlChecksum, indexChecksum);
+        }
+    }
+
+    private void seed(int rows, Random random) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM courses");
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(5L * random.nextInt(150));
+            LocalTime end = start.plusMinutes(45 + 15L * random.nextInt(8));
+            batch.add(new Object[]{
+                    UUID.randomUUID().toString(), "C" + i, "Course " + i,
+                    "inst-" + (i % 100), "Instructor " + (i % 100), "inst" + (i % 100) + "@example.com",
+                    DayOfWeek.of(1 + random.nextInt(7)).name(), start.toString() + ":00", end.toString() + ":00",
+                    10 + random.nextInt(200), 300, 0,
+                    Timestamp.valueOf(base.plusNanos(i * 1000L))
+            });
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbc.batchUpdate("INSERT INTO courses (id, code, title, instructor_id, instructor_name, " +
+                        "instructor_email, day_of_week, start_time, end_time, expected_attendance, capacity, " +
+                        "enrolled, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private record Window(DayOfWeek day, LocalTime from, LocalTime to) {
+        static Window random(Random random) {
+            LocalTime from = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(52));
+            return new Window(DayOfWeek.of(1 + random.nextInt(7)), from, from.plusMinutes(30 + 30L * random.nextInt(4)));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangeType;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class, CourseOccupancyIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseOccupancyIndexTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.deleteAll();
+        occupancyIndex.rebuild();
+    }
+
+    @Test
+    void queryReturnsOverlappingCoursesAndAttendance() {
+        courseService.createCourse(newCourse("OCC101", DayOfWeek.TUESDAY, "08:00", "10:00", 30));
+        courseService.createCourse(newCourse("OCC102", DayOfWeek.TUESDAY, "09:50", "10:40", 40));
+        courseService.createCourse(newCourse("OCC103", DayOfWeek.TUESDAY, "11:55", "13:00", 50));
+        courseService.createCourse(newCourse("OCC104", DayOfWeek.TUESDAY, "12:00", "14:00", 60));
+        courseService.createCourse(newCourse("OCC105", DayOfWeek.WEDNESDAY, "10:00", "12:00", 70));
+
+        CourseOccupancy occupancy = occupancyIndex.query(DayOfWeek.TUESDAY, LocalTime.of(10, 0), LocalTime.of(12, 0));
+
+        // OCC101 在 10:00 结束、OCC104 在 12:00 开始，与窗口只是首尾相接
+        assertEquals(List.of("OCC102", "OCC103"), occupancy.courses().stream().map(OccupiedSlot::code).toList());
+        assertEquals(90, occupancy.totalExpectedAttendance());
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() {
+        Course course = courseService.createCourse(newCourse("OCC201", DayOfWeek.MONDAY, "09:00", "11:00", 80));
+        assertEquals(1, occupancyIndex.query(DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(10, 30)).courses().size());
+
+        courseService.updateCourse(course.getId(), newCourse("OCC201", DayOfWeek.FRIDAY, "14:00", "16:00", 80));
+        assertEquals(0, occupancyIndex.query(DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(10, 30)).courses().size());
+        assertEquals(80, occupancyIndex.query(DayOfWeek.FRIDAY, LocalTime.of(15, 0), LocalTime.of(15, 5)).totalExpectedAttendance());
+
+        courseService.deleteCourse(course.getId());
+        assertEquals(0, occupancyIndex.size());
+        assertEquals(0, occupancyIndex.query(DayOfWeek.FRIDAY, LocalTime.of(0, 0), LocalTime.of(23, 59)).courses().size());
+    }
+
+    /**
+     * 另一个实例直接写库（本实例没有本地事件），只收到转发的变更
+     */
+    @Test
+    void indexFollowsChangesFromOtherReplicas() {
+        Course course = courseRepository.save(newCourse("OCC401", DayOfWeek.SATURDAY, "09:00", "10:00", 45));
+        assertEquals(0, occupancyIndex.size());
+
+        eventPublisher.publishEvent(new CourseReplicaChangedEvent(new CourseChangedEvent(course.getId(), CourseChangeType.CREATED)));
+        assertEquals(45, occupancyIndex.query(DayOfWeek.SATURDAY, LocalTime.of(9, 30), LocalTime.of(9, 45)).totalExpectedAttendance());
+
+        courseRepository.deleteById(course.getId());
+        eventPublisher.publishEvent(new CourseReplicaChangedEvent(new CourseChangedEvent(course.getId(), CourseChangeType.DELETED)));
+        assertEquals(0, occupancyIndex.size());
+    }
+
+    @Test
+    void rebuildLoadsExistingCourses() {
+        courseRepository.save(newCourse("OCC301", DayOfWeek.THURSDAY, "13:00", "15:00", 25));
+        courseRepository.save(newCourse("OCC302", DayOfWeek.THURSDAY, "14:00", "16:00", 35));
+
+        occupancyIndex.rebuild();
+
+        assertEquals(2, occupancyIndex.size());
+        assertEquals(60, occupancyIndex.query(DayOfWeek.THURSDAY, LocalTime.of(14, 30), LocalTime.of(14, 45)).totalExpectedAttendance());
+    }
+
+    @Test
+    void emptyWindowIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> occupancyIndex.query(DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(10, 0)));
+    }
+
+    private static Course newCourse(String code, DayOfWeek day, String start, String end, int attendance) {
+        return new Course(
+                code,
+                "Occupancy " + code,
+                new Instructor("inst-003", "Dr. Wang", "wang@example.com"),
+                new ScheduleSlot(day, LocalTime.parse(start), LocalTime.parse(end), attendance),
+                100
+        );
+    }
+}
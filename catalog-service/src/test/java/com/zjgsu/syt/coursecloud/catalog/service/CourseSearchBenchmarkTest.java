@@ -0,0 +1,125 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 课程搜索：100k 门课程时各类查询（单字母、前缀、多词、教师姓名、课程代码）的 p50 / p99 延迟
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class, CourseSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseSearchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSearchBenchmarkTest.class);
+
+    private static final int COURSES = 100_000;
+    private static final int ITERATIONS = 2_000;
+    private static final String[] WORDS = {
+            "introduction", "advanced", "distributed", "systems", "data", "structures", "algorithms", "machine",
+            "learning", "micro", "services", "network", "security", "database", "operating", "compilers",
+            "graphics", "theory", "software", "engineering", "cloud", "computing", "mobile", "web", "design",
+            "analysis", "statistics", "calculus", "linear", "algebra", "physics", "chemistry", "biology",
+            "economics", "history", "literature", "philosophy", "psychology", "art", "music"
+    };
+    private static final String[] NAMES = {
+            "zhang", "li", "wang", "liu", "chen", "yang", "zhao", "huang", "zhou", "wu",
+            "xu", "sun", "hu", "zhu", "gao", "lin", "he", "guo", "ma", "luo"
+    };
+    private static final String[] QUERIES = {
+            "d", "da", "data", "data str", "micro serv", "zhang", "c1", "c123456", "cloud computing li",
+            "sys", "algo mach", "intro advanced distributed", "web design wang"
+    };
+
+    @Autowired
+    private CourseSearchIndex searchIndex;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void searchLatencyAt100kCourses() {
+        seed(new Random(42));
+        long start = System.nanoTime();
+        searchIndex.rebuild();
+        log.info(String.format("courses=%d index build=%.0fms", COURSES, (System.nanoTime() - start) / 1_000_000.0));
+
+        List<Long> medians = new ArrayList<>();
+        for (String query : QUERIES) {
+            long[] nanos = new long[ITERATIONS];
+            int total = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long begin = System.nanoTime();
+                total = searchIndex.search(query, 0, 20).total();
+                nanos[i] = System.nanoTime() - begin;
+            }
+            Arrays.sort(nanos);
+            medians.add(nanos[ITERATIONS / 2]);
+            log.info(String.format("%-28s hits=%-7d p50=%7.1fus p99=%7.1fus", query, total,
+                    nanos[ITERATIONS / 2] / 1_000.0, nanos[ITERATIONS * 99 / 100] / 1_000.0));
+
+            for (CourseSearchHit hit : searchIndex.search(query, 0, 20).hits()) {
+                assertTrue(matchesAllTerms(hit, query), () -> hit + " does not match " + query);
+            }
+        }
+        medians.sort(Long::compare);
+        assertTrue(medians.get(medians.size() / 2) < 1_000_000L, "median query latency should stay under 1ms");
+    }
+
+    private static boolean matchesAllTerms(CourseSearchHit hit, String query) {
+        List<String> tokens = new ArrayList<>();
+        for (String field : new String[]{hit.code(), hit.title(), hit.instructorName()}) {
+            tokens.addAll(Arrays.asList(field.toLowerCase().split("[^a-z0-9]+")));
+        }
+        for (String term : query.split(" ")) {
+            if (tokens.stream().noneMatch(token -> token.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void seed(Random random) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM courses");
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < COURSES; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + (1 + random.nextInt(4));
+            String instructor = "Dr. " + NAMES[random.nextInt(NAMES.length)] + " " + NAMES[random.nextInt(NAMES.length)];
+            batch.add(new Object[]{
+                    UUID.randomUUID().toString(), "C" + (100_000 + i), title,
+                    "inst-" + (i % 100), instructor, "inst" + (i % 100) + "@example.com",
+                    "MONDAY", "09:00:00", "11:00:00", 50, 100, 0,
+                    Timestamp.valueOf(base.plusNanos(i * 1000L))
+            });
+            if (batch.size() == 10_000 || i == COURSES - 1) {
+                jdbc.batchUpdate("INSERT INTO courses (id, code, title, instructor_id, instructor_name, " +
+                        "instructor_email, day_of_week, start_time, end_time, expected_attendance, capacity, " +
+                        "enrolled, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangeType;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseReplicaChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class, CourseSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseSearchIndexTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseSearchIndex searchIndex;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.deleteAll();
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void prefixesMatchAcrossFieldsAndCodeRanksFirst() {
+        courseService.createCourse(newCourse("DIS201", "Operating Systems", "Dr. Li"));
+        courseService.createCourse(newCourse("CST301", "Distributed Systems", "Dr. Zhang"));
+        courseService.createCourse(newCourse("CST302", "Data Structures", "Dr. Distefano"));
+
+        CourseSearchPage result = searchIndex.search("dis", 0, 10);
+
+        // 课程代码权重 > 标题 > 教师姓名
+        assertEquals(List.of("DIS201", "CST301", "CST302"), codes(result));
+        assertEquals(3, result.total());
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        courseService.createCourse(newCourse("CST401", "Distributed Systems", "Dr. Zhang"));
+        courseService.createCourse(newCourse("CST402", "Distributed Databases", "Dr. Li"));
+
+        assertEquals(List.of("CST401"), codes(searchIndex.search("Dist SYS", 0, 10)));
+        assertEquals(List.of("CST402"), codes(searchIndex.search("distributed li", 0, 10)));
+        assertEquals(0, searchIndex.search("distributed chen", 0, 10).total());
+    }
+
+    @Test
+    void chineseTitlesMatchBySubstring() {
+        courseService.createCourse(newCourse("CN101", "分布式系统设计", "张老师"));
+        courseService.createCourse(newCourse("CN102", "操作系统", "李老师"));
+
+        assertEquals(List.of("CN101", "CN102"), codes(searchIndex.search("系统", 0, 10)));
+        assertEquals(List.of("CN101"), codes(searchIndex.search("分布式 张", 0, 10)));
+    }
+
+    @Test
+    void resultsArePaged() {
+        for (int i = 0; i < 5; i++) {
+            courseService.createCourse(newCourse("PG10" + i, "Paging Course " + i, "Dr. Wang"));
+        }
+
+        CourseSearchPage first = searchIndex.search("paging", 0, 2);
+        CourseSearchPage last = searchIndex.search("paging", 2, 2);
+
+        assertEquals(List.of("PG100", "PG101"), codes(first));
+        assertTrue(first.hasMore());
+        assertEquals(List.of("PG104"), codes(last));
+        assertFalse(last.hasMore());
+        assertEquals(5, last.total());
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() {
+        Course course = courseService.createCourse(newCourse("UPD101", "Cloud Computing", "Dr. Wang"));
+
+        courseService.updateCourse(course.getId(), newCourse("UPD101", "Edge Computing", "Dr. Wang"));
+        assertEquals(0, searchIndex.search("cloud", 0, 10).total());
+        assertEquals(List.of("UPD101"), codes(searchIndex.search("edge", 0, 10)));
+
+        courseService.deleteCourse(course.getId());
+        assertEquals(0, searchIndex.search("edge", 0, 10).total());
+        assertEquals(0, searchIndex.size());
+    }
+
+    /**
+     * 另一个实例直接写库（本实例没有本地事件），只收到转发的变更
+     */
+    @Test
+    void indexFollowsChangesFromOtherReplicas() {
+        Course course = courseRepository.save(newCourse("REP101", "Stream Processing", "Dr. Zhou"));
+        assertEquals(0, searchIndex.search("stream", 0, 10).total());
+
+        eventPublisher.publishEvent(new CourseReplicaChangedEvent(new CourseChangedEvent(course.getId(), CourseChangeType.CREATED)));
+        assertEquals(List.of("REP101"), codes(searchIndex.search("stream", 0, 10)));
+
+        courseRepository.deleteById(course.getId());
+        eventPublisher.publishEvent(new CourseReplicaChangedEvent(new CourseChangedEvent(course.getId(), CourseChangeType.DELETED)));
+        assertEquals(0, searchIndex.size());
+    }
+
+    private static List<String> codes(CourseSearchPage page) {
+        return page.hits().stream().map(CourseSearchHit::code).toList();
+    }
+
+    private static Course newCourse(String code, String title, String instructorName) {
+        return new Course(
+                code,
+                title,
+                new Instructor("inst-" + code, instructorName, "teacher@example.com"),
+                new ScheduleSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), 40),
+                60
+        );
+    }
+}
@@ -0,0 +1,75 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangeType;
+import com.zjgsu.syt.coursecloud.catalog.event.CourseChangedEvent;
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class})
+@RecordApplicationEvents
+class CourseServiceTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void writesPublishCourseChangedEvents() {
+        Course created = courseService.createCourse(newCourse("CST301", 60));
+
+        Course changes = newCourse("CST301", 80);
+        courseService.updateCourse(created.getId(), changes);
+        courseService.deleteCourse(created.getId());
+
+        List<CourseChangedEvent> published = events.stream(CourseChangedEvent.class).toList();
+        assertEquals(List.of(
+                new CourseChangedEvent(created.getId(), CourseChangeType.CREATED),
+                new CourseChangedEvent(created.getId(), CourseChangeType.UPDATED),
+                new CourseChangedEvent(created.getId(), CourseChangeType.DELETED)
+        ), published);
+    }
+
+    @Test
+    void enrollmentDeltasApplyOncePerBatch() {
+        Course first = courseService.createCourse(newCourse("CST302", 300));
+        Course second = courseService.createCourse(newCourse("CST303", 300));
+        Map<String, Integer> deltas = Map.of(first.getId(), 200, second.getId(), -1, "missing", 5);
+
+        assertTrue(courseService.applyEnrollmentDeltas("batch-1", deltas));
+        // 中继重试同一批次不会重复计数
+        assertFalse(courseService.applyEnrollmentDeltas("batch-1", deltas));
+        assertTrue(courseService.applyEnrollmentDeltas("batch-2", Map.of(first.getId(), 3)));
+
+        assertEquals(203, courseService.getCourseById(first.getId()).orElseThrow().getEnrolled());
+        assertEquals(0, courseService.getCourseById(second.getId()).orElseThrow().getEnrolled());
+    }
+
+    private static Course newCourse(String code, int capacity) {
+        return new Course(
+                code,
+                "Distributed Systems",
+                new Instructor("inst-002", "Dr. Li", "li@example.com"),
+                new ScheduleSlot(DayOfWeek.TUESDAY, LocalTime.of(10, 0), LocalTime.of(12, 0), 50),
+                capacity
+        );
+    }
+}
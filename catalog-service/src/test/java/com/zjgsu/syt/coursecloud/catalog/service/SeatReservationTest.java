@@ -0,0 +1,110 @@
+package com.zjgsu.syt.coursecloud.catalog.service;
+
+import com.zjgsu.syt.coursecloud.catalog.model.Course;
+import com.zjgsu.syt.coursecloud.catalog.model.Instructor;
+import com.zjgsu.syt.coursecloud.catalog.model.ScheduleSlot;
+import com.zjgsu.syt.coursecloud.catalog.repository.CourseRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({CourseService.class, CourseCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatReservationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatReservationTest.class);
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Course course = courseRepository.save(newCourse("CST201", 50));
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+
+        runConcurrently(16, 10, () -> {
+            switch (courseService.reserveSeat(course.getId())) {
+                case RESERVED -> reserved.incrementAndGet();
+                case FULL -> full.incrementAndGet();
+                default -> throw new IllegalStateException("course disappeared");
+            }
+        });
+
+        assertEquals(50, reserved.get());
+        assertEquals(110, full.get());
+        assertEquals(50, courseRepository.findById(course.getId()).orElseThrow().getEnrolled());
+        assertEquals(SeatReservationResult.NOT_FOUND, courseService.reserveSeat("missing"));
+    }
+
+    /**
+     * 单热点课程占座吞吐：1 / 8 / 64 个并发写者
+     */
+    @Test
+    @Tag("benchmark")
+    void reservationThroughputOnHotCourse() throws Exception {
+        int reservationsPerRun = 20_000;
+        for (int writers : new int[]{1, 8, 64}) {
+            Course course = courseRepository.save(newCourse("HOT" + (100 + writers), reservationsPerRun));
+            long start = System.nanoTime();
+            runConcurrently(writers, reservationsPerRun / writers, () -> courseService.reserveSeat(course.getId()));
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            log.info(String.format("writers=%d reservations=%d elapsed=%.2fs throughput=%.0f ops/s",
+                    writers, reservationsPerRun, seconds, reservationsPerRun / seconds));
+        }
+    }
+
+    private static Course newCourse(String code, int capacity) {
+        return new Course(
+                code,
+                "Seat Reservation " + code,
+                new Instructor("inst-001", "Dr. Zhang", "zhang@example.com"),
+                new ScheduleSlot(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0), 50),
+                capacity
+        );
+    }
+
+    private static void runConcurrently(int threads, int iterationsPerThread, Runnable task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < iterationsPerThread; i++) {
+                    task.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
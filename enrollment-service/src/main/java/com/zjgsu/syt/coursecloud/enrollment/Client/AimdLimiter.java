@@ -0,0 +1,94 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD 自适应并发上限
+ * 调用在 slowCallMs 内成功返回、且并发已用到上限一半以上时，上限加 1；调用失败或慢于阈值时，上限乘以 backoffRatio。
+ * 下游变慢时上限随之收缩，超出上限的调用立即拒绝，而不是占着线程一直等到 readTimeout。
+ * 上限下调后，在下调之前就已发出的调用不再触发下调，避免同一波慢调用把上限连续压到最低。
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long slowCallNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private double limit;
+    private int inflight;
+    private long lastDecreaseNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long slowCallMs, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid AIMD limiter settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * 并发未达上限时占用一个名额，成功后必须调用 release
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inflight >= (int) limit) {
+                return false;
+            }
+            inflight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 归还名额并按本次调用的结果调整上限
+     *
+     * @param startNanos 调用开始时的 System.nanoTime()
+     * @param endNanos   调用结束时的 System.nanoTime()
+     * @param dropped    调用失败（超时、连接错误、5xx）
+     */
+    public void release(long startNanos, long endNanos, boolean dropped) {
+        lock.lock();
+        try {
+            boolean nearLimit = inflight * 2 >= limit;
+            inflight--;
+            if (dropped || endNanos - startNanos > slowCallNanos) {
+                if (startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = endNanos;
+                }
+            } else if (nearLimit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInflight() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,13 +1,38 @@
 package com.zjgsu.syt.coursecloud.enrollment.client;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "catalog-service", fallback = CatalogClientFallback.class)
 public interface CatalogClient {
 
     @GetMapping("/api/courses/{courseId}")
-    Map<String, Object> getCourse(@PathVariable("courseId") String courseId);
+    RemoteResponse<CourseSnapshot> getCourse(@PathVariable("courseId") String courseId);
+
+    /**
+     * 批量查询课程（单次最多 MAX_BATCH_SIZE 个），data 为 courseId -> 课程
+     */
+    @PostMapping("/api/courses/batch")
+    RemoteResponse<Map<String, CourseSnapshot>> getCourses(@RequestBody CourseBatchRequest request);
+
+    /**
+     * 批量调整选课人数，batchId 为幂等键，重复提交只生效一次
+     */
+    @PostMapping("/internal/enrollment-deltas")
+    RemoteResponse<EnrollmentDeltaResult> applyEnrollmentDeltas(@RequestBody EnrollmentDeltaRequest request);
+
+    int MAX_BATCH_SIZE = 500;
+
+    record CourseBatchRequest(List<String> ids) {}
+
+    record EnrollmentDeltaRequest(String batchId, Map<String, Integer> deltas) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record EnrollmentDeltaResult(String batchId, boolean applied, int courses) {}
 }
@@ -10,8 +10,20 @@ import java.util.Map;
 public class CatalogClientFallback implements CatalogClient {
 
     @Override
-    public Map<String, Object> getCourse(String courseId) {
+    public RemoteResponse<CourseSnapshot> getCourse(String courseId) {
         log.warn("CatalogClient fallback triggered for course: {}", courseId);
         throw new ServiceUnavailableException("课程服务暂时不可用，请稍后再试");
     }
+
+    @Override
+    public RemoteResponse<Map<String, CourseSnapshot>> getCourses(CourseBatchRequest request) {
+        log.warn("CatalogClient fallback triggered for {} courses", request.ids().size());
+        throw new ServiceUnavailableException("课程服务暂时不可用，请稍后再试");
+    }
+
+    @Override
+    public RemoteResponse<EnrollmentDeltaResult> applyEnrollmentDeltas(EnrollmentDeltaRequest request) {
+        log.warn("CatalogClient fallback triggered for enrollment delta batch: {}", request.batchId());
+        throw new ServiceUnavailableException("课程服务暂时不可用，请稍后再试");
+    }
 }
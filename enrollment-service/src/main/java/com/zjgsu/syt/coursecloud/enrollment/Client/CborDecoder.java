@@ -0,0 +1,49 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 按响应的 Content-Type 解码：application/cbor 用 CBOR，其余按 JSON，
+ * 对端未启用 CBOR 或错误页返回 JSON 时同样能解码；直接读字节流，不经过字符解码
+ */
+public class CborDecoder implements Decoder {
+
+    private final ObjectMapper cborMapper = CBORMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ObjectMapper jsonMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (response.body() == null) {
+            return Util.emptyValueOf(type);
+        }
+        ObjectMapper mapper = isCbor(response) ? cborMapper : jsonMapper;
+        try (InputStream body = response.body().asInputStream()) {
+            return mapper.readValue(body, mapper.constructType(type));
+        }
+    }
+
+    private static boolean isCbor(Response response) {
+        Collection<String> contentTypes = response.headers().getOrDefault("Content-Type", List.of());
+        return contentTypes.stream().anyMatch(value -> value.startsWith(CborEncoder.CBOR));
+    }
+}
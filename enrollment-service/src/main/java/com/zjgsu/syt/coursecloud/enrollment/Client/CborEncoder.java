@@ -0,0 +1,32 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.lang.reflect.Type;
+
+/**
+ * 以 CBOR 编码请求体，按客户端在配置中选用（spring.cloud.openfeign.client.config.&lt;name&gt;.encoder），默认仍为 JSON
+ */
+public class CborEncoder implements Encoder {
+
+    static final String CBOR = "application/cbor";
+
+    private final ObjectMapper mapper = new CBORMapper();
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) {
+        try {
+            byte[] body = mapper.writerFor(mapper.constructType(bodyType)).writeValueAsBytes(object);
+            template.removeHeader("Content-Type");
+            template.header("Content-Type", CBOR);
+            template.body(body, null);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException("Failed to encode request body as CBOR", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import java.io.IOException;
+
+/**
+ * 对某个服务的并发调用已达自适应上限，请求未发出即被拒绝
+ * 继承 IOException，由 Feign 按网络错误处理后进入 fallback；熔断器通过 ConcurrencyLimitRejection 忽略它，
+ * 否则限流本身会推高失败率而打开熔断，把上限内本可成功的调用也一并拒绝
+ */
+public class ConcurrencyLimitExceededException extends IOException {
+
+    public ConcurrencyLimitExceededException(String target, int limit) {
+        super("Concurrency limit " + limit + " reached for " + target);
+    }
+}
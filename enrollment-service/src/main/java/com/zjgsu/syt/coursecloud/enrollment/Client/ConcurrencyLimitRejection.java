@@ -0,0 +1,20 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import java.util.function.Predicate;
+
+/**
+ * 熔断器的 ignoreExceptionPredicate：被并发上限拒绝的调用没有到达下游，不计入熔断失败率
+ * Feign 会把 ConcurrencyLimitExceededException 包装成 RetryableException，因此沿 cause 链查找
+ */
+public class ConcurrencyLimitRejection implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof ConcurrencyLimitExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
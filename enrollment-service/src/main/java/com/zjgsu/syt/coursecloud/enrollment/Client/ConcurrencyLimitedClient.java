@@ -0,0 +1,89 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 按 Feign 客户端名称为每个下游服务维护一个 AimdLimiter
+ * 位于负载均衡之前：超出上限的调用直接抛出 ConcurrencyLimitExceededException，不占用连接也不等待超时
+ */
+public class ConcurrencyLimitedClient implements Client {
+
+    private final Client delegate;
+    private final Function<String, AimdLimiter> limiterFactory;
+    private final MeterRegistry registry;
+    private final Map<String, Limited> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * @param limiterFactory 服务名 -> 该服务的限流器
+     * @param registry       为 null 时不登记指标
+     */
+    public ConcurrencyLimitedClient(Client delegate, Function<String, AimdLimiter> limiterFactory,
+                                    MeterRegistry registry) {
+        this.delegate = delegate;
+        this.limiterFactory = limiterFactory;
+        this.registry = registry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String target = PerTargetPoolClient.targetName(request);
+        if (target == null) {
+            return delegate.execute(request, options);
+        }
+        Limited limited = limiters.computeIfAbsent(target, this::create);
+        AimdLimiter limiter = limited.limiter();
+        if (!limiter.tryAcquire()) {
+            if (limited.rejected() != null) {
+                limited.rejected().increment();
+            }
+            throw new ConcurrencyLimitExceededException(target, limiter.getLimit());
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            Response response = delegate.execute(request, options);
+            dropped = response.status() >= 500;
+            return response;
+        } finally {
+            limiter.release(start, System.nanoTime(), dropped);
+        }
+    }
+
+    AimdLimiter limiter(String target) {
+        Limited limited = limiters.get(target);
+        return limited != null ? limited.limiter() : null;
+    }
+
+    private Limited create(String target) {
+        AimdLimiter limiter = limiterFactory.apply(target);
+        if (registry == null) {
+            return new Limited(limiter, null);
+        }
+        Gauge.builder("enrollment.remote.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .description("Adaptive concurrency limit for calls to a remote service")
+                .tag("target", target)
+                .register(registry);
+        Gauge.builder("enrollment.remote.concurrency.inflight", limiter, AimdLimiter::getInflight)
+                .description("Calls to a remote service currently in flight")
+                .tag("target", target)
+                .register(registry);
+        Counter rejected = Counter.builder("enrollment.remote.concurrency.rejected")
+                .description("Calls rejected because the concurrency limit was reached")
+                .tag("target", target)
+                .register(registry);
+        return new Limited(limiter, rejected);
+    }
+
+    private record Limited(AimdLimiter limiter, Counter rejected) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * 选课服务需要的课程信息快照：只保留 id、容量和上课时间
+ * 直接由 catalog-service 的课程响应解码，code、title、教师等字段解码时跳过
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CourseSnapshot(
+        String id,
+        int capacity,
+        DayOfWeek dayOfWeek,
+        LocalTime start,
+        LocalTime end
+) {
+}
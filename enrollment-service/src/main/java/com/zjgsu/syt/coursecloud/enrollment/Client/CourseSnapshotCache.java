@@ -0,0 +1,108 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 课程快照缓存
+ * 按 courseId 缓存 CourseSnapshot，到达 refresh 时间后在后台异步刷新（刷新期间继续返回旧值），
+ * catalog-service 在课程更新/删除后推送失效通知。
+ */
+@Component
+public class CourseSnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSnapshotCache.class);
+
+    private final CatalogClient catalogClient;
+    private final AsyncLoadingCache<String, CourseSnapshot> cache;
+
+    public CourseSnapshotCache(CatalogClient catalogClient,
+                               @Qualifier("remoteLookupExecutor") ExecutorService remoteLookupExecutor,
+                               ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${enrollment.course-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${enrollment.course-cache.refresh-seconds:60}") long refreshSeconds,
+                               @Value("${enrollment.course-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.catalogClient = catalogClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .executor(remoteLookupExecutor)
+                .recordStats()
+                .buildAsync(new CacheLoader<>() {
+                    @Override
+                    public CourseSnapshot load(String courseId) {
+                        return loadOne(courseId);
+                    }
+
+                    @Override
+                    public Map<String, CourseSnapshot> loadAll(Set<? extends String> courseIds) {
+                        return loadMany(List.copyOf(courseIds));
+                    }
+                });
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "courseSnapshot"));
+    }
+
+    /**
+     * 获取课程快照，课程不存在时 future 的结果为 null
+     */
+    public CompletableFuture<CourseSnapshot> get(String courseId) {
+        // copy() 使调用方的超时/取消不会影响缓存中共享的 future
+        return cache.get(courseId).copy();
+    }
+
+    /**
+     * 批量获取课程快照，不存在的课程不会出现在结果中
+     */
+    public CompletableFuture<Map<String, CourseSnapshot>> getAll(Collection<String> courseIds) {
+        return cache.getAll(courseIds);
+    }
+
+    public void invalidate(String courseId) {
+        cache.synchronous().invalidate(courseId);
+        log.debug("Course snapshot invalidated: {}", courseId);
+    }
+
+    private CourseSnapshot loadOne(String courseId) {
+        RemoteResponse<CourseSnapshot> response = catalogClient.getCourse(courseId);
+        return response != null && response.isSuccess() ? response.data() : null;
+    }
+
+    /**
+     * 通过批量接口加载，每 MAX_BATCH_SIZE 个课程一次远程调用；不存在的课程不放入结果
+     */
+    private Map<String, CourseSnapshot> loadMany(List<String> courseIds) {
+        Map<String, CourseSnapshot> result = new HashMap<>();
+        for (int from = 0; from < courseIds.size(); from += CatalogClient.MAX_BATCH_SIZE) {
+            List<String> chunk = courseIds.subList(from, Math.min(courseIds.size(), from + CatalogClient.MAX_BATCH_SIZE));
+            RemoteResponse<Map<String, CourseSnapshot>> response =
+                    catalogClient.getCourses(new CatalogClient.CourseBatchRequest(chunk));
+            if (response == null || !response.isSuccess()) {
+                throw new IllegalStateException("Bulk course lookup failed: "
+                        + (response != null ? response.message() : "empty response"));
+            }
+            if (response.data() != null) {
+                result.putAll(response.data());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,119 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Feign 底层 HTTP 客户端：Apache HttpClient 5 连接池替代默认的 HttpURLConnection
+ * 连接在 keep-alive 期间复用，空闲和过期连接由后台线程回收；每个服务实例的连接上限可按客户端名称单独配置：
+ * enrollment.http-client.targets.&lt;服务名&gt;.max-per-route，未配置时取 enrollment.http-client.max-per-route。
+ * 这里定义的连接池、HttpClient 和 Client 会替代 Spring Cloud OpenFeign 自动配置的同类 Bean，负载均衡仍由
+ * FeignBlockingLoadBalancerClient 完成。
+ * 负载均衡之前再套一层按服务的自适应并发上限（enrollment.concurrency-limit），下游变慢时超出上限的调用立即失败。
+ */
+@Configuration(proxyBeanMethods = false)
+public class FeignHttpClientConfiguration {
+
+    private static final String TARGETS_PREFIX = "enrollment.http-client.targets.";
+    private static final String LIMIT_PREFIX = "enrollment.concurrency-limit.";
+
+    @Bean(destroyMethod = "close")
+    public InstrumentedConnectionManager feignConnectionManager(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${enrollment.http-client.max-total:200}") int maxTotal,
+            @Value("${enrollment.http-client.max-per-route:50}") int maxPerRoute,
+            @Value("${enrollment.http-client.time-to-live-seconds:300}") long timeToLiveSeconds,
+            @Value("${enrollment.http-client.validate-after-inactivity-ms:2000}") long validateAfterInactivityMs) {
+        InstrumentedConnectionManager manager = new InstrumentedConnectionManager();
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        manager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setTimeToLive(TimeValue.ofSeconds(timeToLiveSeconds))
+                // 空闲超过该时间的连接在复用前先检查是否已被对端关闭
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                .build());
+        // httpcomponents.httpclient.pool.total.{max,connections,pending}{httpclient=feign}
+        meterRegistry.ifAvailable(registry -> {
+            new PoolingHttpClientConnectionManagerMetricsBinder(manager, "feign").bindTo(registry);
+            manager.bindMetrics(registry);
+        });
+        return manager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(
+            InstrumentedConnectionManager feignConnectionManager,
+            @Value("${enrollment.http-client.keep-alive-seconds:15}") long keepAliveSeconds,
+            @Value("${enrollment.http-client.idle-evict-seconds:30}") long idleEvictSeconds,
+            @Value("${enrollment.http-client.lease-timeout-ms:1000}") long leaseTimeoutMs) {
+        return HttpClients.custom()
+                .setConnectionManager(feignConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // 对端未返回 Keep-Alive 头时的保持时间，应短于对端 Tomcat 的 keep-alive 超时（默认 20s）
+                        .setConnectionKeepAlive(TimeValue.ofSeconds(keepAliveSeconds))
+                        // 连接池耗尽时最多等待这么久，超时快速失败并计入熔断，而不是堆积请求
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean
+    public Client feignClient(CloseableHttpClient feignHttpClient,
+                              InstrumentedConnectionManager feignConnectionManager,
+                              Environment environment,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              LoadBalancerClient loadBalancerClient,
+                              LoadBalancerClientFactory loadBalancerClientFactory,
+                              ObjectProvider<LoadBalancerFeignRequestTransformer> transformers,
+                              @Value("${enrollment.http-client.max-per-route:50}") int maxPerRoute,
+                              @Value("${enrollment.concurrency-limit.enabled:true}") boolean limitEnabled) {
+        Client pooled = new PerTargetPoolClient(
+                new ApacheHttp5Client(feignHttpClient),
+                feignConnectionManager,
+                target -> environment.getProperty(TARGETS_PREFIX + target + ".max-per-route", Integer.class, maxPerRoute),
+                meterRegistry.getIfAvailable());
+        Client balanced = new FeignBlockingLoadBalancerClient(pooled, loadBalancerClient, loadBalancerClientFactory,
+                transformers.orderedStream().toList());
+        if (!limitEnabled) {
+            return balanced;
+        }
+        return new ConcurrencyLimitedClient(balanced, target -> limiter(environment, target), meterRegistry.getIfAvailable());
+    }
+
+    /**
+     * enrollment.concurrency-limit.targets.&lt;服务名&gt;.* 覆盖同名的全局设置
+     */
+    private static AimdLimiter limiter(Environment environment, String target) {
+        return new AimdLimiter(
+                limitProperty(environment, target, "initial-limit", Integer.class, 20),
+                limitProperty(environment, target, "min-limit", Integer.class, 4),
+                limitProperty(environment, target, "max-limit", Integer.class, 200),
+                limitProperty(environment, target, "slow-call-ms", Long.class, 500L),
+                limitProperty(environment, target, "backoff-ratio", Double.class, 0.9));
+    }
+
+    private static <T> T limitProperty(Environment environment, String target, String key, Class<T> type, T defaultValue) {
+        T global = environment.getProperty(LIMIT_PREFIX + key, type, defaultValue);
+        return environment.getProperty(LIMIT_PREFIX + "targets." + target + "." + key, type, global);
+    }
+}
@@ -0,0 +1,54 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Feign 使用的连接池，在 PoolingHttpClientConnectionManager 基础上记录每次取连接的等待时间
+ * 池内有空闲连接时等待接近 0；流量突增、连接数到达上限时等待时间上升，超过 lease-timeout 则请求失败
+ */
+public class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private Timer leaseWait;
+
+    void bindMetrics(MeterRegistry registry) {
+        this.leaseWait = Timer.builder("enrollment.http.pool.lease.wait")
+                .description("Time spent waiting for a pooled connection to a remote service")
+                .register(registry);
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+        Timer timer = leaseWait;
+        if (timer == null) {
+            return lease;
+        }
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return lease.get(timeout);
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return lease.cancel();
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.ConnPoolControl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * 按 Feign 客户端名称（user-service、catalog-service）限制每个实例的连接数
+ * 位于负载均衡之后，请求地址已解析为具体实例；第一次访问某个实例时按所属服务设置该路由的连接上限，
+ * 并登记该路由的占用、排队指标，之后直接交给底层 HTTP 客户端
+ */
+public class PerTargetPoolClient implements Client {
+
+    private final Client delegate;
+    private final ConnPoolControl<HttpRoute> pool;
+    private final ToIntFunction<String> maxPerRoute;
+    private final MeterRegistry registry;
+    // 已配置过的路由 -> 所属服务
+    private final Map<HttpRoute, String> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxPerRoute 服务名 -> 该服务每个实例的最大连接数
+     * @param registry    为 null 时不登记路由指标
+     */
+    public PerTargetPoolClient(Client delegate, ConnPoolControl<HttpRoute> pool,
+                               ToIntFunction<String> maxPerRoute, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.pool = pool;
+        this.maxPerRoute = maxPerRoute;
+        this.registry = registry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String target = targetName(request);
+        if (target != null) {
+            routes.computeIfAbsent(routeOf(request.url()), route -> configure(route, target));
+        }
+        return delegate.execute(request, options);
+    }
+
+    private String configure(HttpRoute route, String target) {
+        pool.setMaxPerRoute(route, maxPerRoute.applyAsInt(target));
+        if (registry != null) {
+            String address = route.getTargetHost().toHostString();
+            Gauge.builder("enrollment.http.pool.route.leased", pool, control -> control.getStats(route).getLeased())
+                    .description("Connections currently in use to one remote instance")
+                    .tags("target", target, "route", address)
+                    .register(registry);
+            Gauge.builder("enrollment.http.pool.route.pending", pool, control -> control.getStats(route).getPending())
+                    .description("Requests waiting for a connection to one remote instance")
+                    .tags("target", target, "route", address)
+                    .register(registry);
+        }
+        return target;
+    }
+
+    static String targetName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template != null && template.feignTarget() != null ? template.feignTarget().name() : null;
+    }
+
+    /**
+     * 与 HttpClient 默认路由规划一致：无代理，https 为加密路由，未写端口时取协议默认端口
+     */
+    static HttpRoute routeOf(String url) {
+        URI uri = URI.create(url);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
+}
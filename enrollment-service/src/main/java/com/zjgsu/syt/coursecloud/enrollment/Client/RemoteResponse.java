@@ -0,0 +1,32 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * user-service / catalog-service 响应信封中选课服务用到的部分
+ * 解码时直接绑定到该类型，port、hostname、count 等其余字段由 Jackson 在读取时跳过，不再构造 Map 树。
+ *
+ * @param data 成功时的业务数据，失败时为 null
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RemoteResponse<T>(
+        String status,
+        T data,
+        String message
+) {
+    private static final String SUCCESS = "SUCCESS";
+
+    public static <T> RemoteResponse<T> success(T data) {
+        return new RemoteResponse<>(SUCCESS, data, null);
+    }
+
+    public static <T> RemoteResponse<T> error(String message) {
+        return new RemoteResponse<>("ERROR", null, message);
+    }
+
+    @JsonIgnore
+    public boolean isSuccess() {
+        return SUCCESS.equals(status);
+    }
+}
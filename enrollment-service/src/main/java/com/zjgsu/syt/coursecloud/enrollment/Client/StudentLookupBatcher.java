@@ -0,0 +1,168 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 学生查询微批合并器
+ * 并发到达的单个学号查询先进入当前批次，批次在等待窗口结束或攒满 maxBatchSize 个学号时
+ * 通过 UserClient.getStudents 一次发出，再逐个完成调用方的 future。
+ * 位于 StudentLookupCache 之后，只处理缓存未命中的学号。
+ */
+@Component
+public class StudentLookupBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentLookupBatcher.class);
+
+    private final UserClient userClient;
+    private final ExecutorService executor;
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // 当前批次：学号 -> 等待该学号结果的调用方
+    private Map<String, List<CompletableFuture<Boolean>>> pending = new LinkedHashMap<>();
+    // 批次编号，窗口定时器只冲刷自己启动时的那一批
+    private long generation;
+
+    private Timer batchTimer;
+    private DistributionSummary batchSizes;
+
+    public StudentLookupBatcher(UserClient userClient,
+                                @Qualifier("remoteLookupExecutor") ExecutorService remoteLookupExecutor,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${enrollment.student-batcher.enabled:true}") boolean enabled,
+                                @Value("${enrollment.student-batcher.window-ms:5}") long windowMs,
+                                @Value("${enrollment.student-batcher.max-batch-size:100}") int maxBatchSize) {
+        this.userClient = userClient;
+        this.executor = remoteLookupExecutor;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxBatchSize = Math.min(Math.max(1, maxBatchSize), UserClient.MAX_BATCH_SIZE);
+        meterRegistry.ifAvailable(this::bindMetrics);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        Gauge.builder("enrollment.student.batcher.window", () -> windowMs)
+                .description("Micro-batching window for student lookups")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("enrollment.student.batcher.max.size", () -> maxBatchSize)
+                .description("Maximum student ids per batched lookup")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("enrollment.student.batcher.batch.size")
+                .description("Distinct student ids per bulk lookup call")
+                .register(registry);
+        this.batchTimer = Timer.builder("enrollment.student.batcher.call")
+                .description("Latency of bulk student lookup calls")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 查询学号是否存在，结果在所在批次的批量调用返回后完成
+     */
+    public CompletableFuture<Boolean> exists(String studentId) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Map<String, List<CompletableFuture<Boolean>>> full = null;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                long batch = generation;
+                CompletableFuture.delayedExecutor(windowMs, TimeUnit.MILLISECONDS, executor)
+                        .execute(() -> flushWindow(batch));
+            }
+            pending.computeIfAbsent(studentId, id -> new ArrayList<>(1)).add(result);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return result;
+    }
+
+    private void flushWindow(long batch) {
+        Map<String, List<CompletableFuture<Boolean>>> ready = null;
+        lock.lock();
+        try {
+            if (generation == batch && !pending.isEmpty()) {
+                ready = takePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+    }
+
+    private Map<String, List<CompletableFuture<Boolean>>> takePending() {
+        Map<String, List<CompletableFuture<Boolean>>> taken = pending;
+        pending = new LinkedHashMap<>();
+        generation++;
+        return taken;
+    }
+
+    private void dispatch(Map<String, List<CompletableFuture<Boolean>>> batch) {
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                Map<String, Boolean> found = fetch(userClient, List.copyOf(batch.keySet()));
+                batch.forEach((studentId, waiters) -> {
+                    Boolean exists = found.get(studentId);
+                    waiters.forEach(waiter -> waiter.complete(exists));
+                });
+            } catch (Exception e) {
+                log.warn("Bulk student lookup of {} ids failed: {}", batch.size(), e.getMessage());
+                batch.values().forEach(waiters -> waiters.forEach(waiter -> waiter.completeExceptionally(e)));
+            } finally {
+                if (batchTimer != null) {
+                    batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    batchSizes.record(batch.size());
+                }
+            }
+        });
+    }
+
+    /**
+     * 一次批量调用查询一组学号（不超过 UserClient.MAX_BATCH_SIZE 个）
+     */
+    static Map<String, Boolean> fetch(UserClient userClient, List<String> studentIds) {
+        RemoteResponse<Map<String, StudentSummary>> response =
+                userClient.getStudents(new UserClient.StudentBatchRequest(studentIds));
+        if (response == null || !response.isSuccess()) {
+            throw new IllegalStateException("Bulk student lookup failed: "
+                    + (response != null ? response.message() : "empty response"));
+        }
+        Map<String, StudentSummary> data = response.data();
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        studentIds.forEach(studentId -> result.put(studentId, data != null && data.containsKey(studentId)));
+        log.debug("Bulk student lookup: {} ids in one call", studentIds.size());
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 学生存在性本地缓存
+ * 位于 UserClient 之前，已存在的学号长时间缓存，不存在的学号短时间负缓存；
+ * 同一学号的并发未命中只会发出一次远程调用。命中率等指标通过 /actuator/metrics 的 cache.* 暴露。
+ */
+@Component
+public class StudentLookupCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentLookupCache.class);
+
+    private final UserClient userClient;
+    private final StudentLookupBatcher batcher;
+    private final AsyncCache<String, Boolean> cache;
+
+    public StudentLookupCache(UserClient userClient,
+                              StudentLookupBatcher batcher,
+                              @Qualifier("remoteLookupExecutor") ExecutorService remoteLookupExecutor,
+                              ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${enrollment.student-cache.maximum-size:100000}") long maximumSize,
+                              @Value("${enrollment.student-cache.ttl-seconds:600}") long ttlSeconds,
+                              @Value("${enrollment.student-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.userClient = userClient;
+        this.batcher = batcher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExistenceExpiry(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(negativeTtlSeconds)))
+                .executor(remoteLookupExecutor)
+                .recordStats()
+                .buildAsync();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "studentExistence"));
+    }
+
+    /**
+     * 查询学号是否存在；远程调用失败时返回异常完成的 future，且失败结果不会被缓存
+     */
+    public CompletableFuture<Boolean> exists(String studentId) {
+        // copy() 使调用方的超时/取消不会影响缓存中共享的 future
+        return cache.get(studentId, this::lookup).copy();
+    }
+
+    /**
+     * 批量查询学号是否存在，命中缓存的直接返回，未命中的一并加载
+     */
+    public CompletableFuture<Map<String, Boolean>> existsAll(Collection<String> studentIds) {
+        return cache.getAll(studentIds, this::loadAll);
+    }
+
+    /**
+     * 主动失效，学生被删除或学号变更时使用
+     */
+    public void invalidate(String studentId) {
+        cache.synchronous().invalidate(studentId);
+    }
+
+    /**
+     * 未命中时的加载：开启微批时并入当前批次，否则单独调用
+     */
+    private CompletableFuture<Boolean> lookup(String studentId, Executor executor) {
+        return batcher.isEnabled()
+                ? batcher.exists(studentId)
+                : CompletableFuture.supplyAsync(() -> load(studentId), executor);
+    }
+
+    private Boolean load(String studentId) {
+        RemoteResponse<StudentSummary> response = userClient.getStudent(studentId);
+        boolean exists = response != null && response.isSuccess();
+        log.debug("Student lookup: studentId={}, exists={}", studentId, exists);
+        return exists;
+    }
+
+    private CompletableFuture<Map<String, Boolean>> loadAll(Set<? extends String> studentIds, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> fetchAll(List.copyOf(studentIds)), executor);
+    }
+
+    /**
+     * 通过批量接口加载，每 MAX_BATCH_SIZE 个学号一次远程调用
+     */
+    private Map<String, Boolean> fetchAll(List<String> studentIds) {
+        Map<String, Boolean> result = new HashMap<>();
+        for (int from = 0; from < studentIds.size(); from += UserClient.MAX_BATCH_SIZE) {
+            List<String> chunk = studentIds.subList(from, Math.min(studentIds.size(), from + UserClient.MAX_BATCH_SIZE));
+            result.putAll(StudentLookupBatcher.fetch(userClient, chunk));
+        }
+        return result;
+    }
+
+    private record ExistenceExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Boolean> {
+
+        @Override
+        public long expireAfterCreate(String key, Boolean exists, long currentTime) {
+            return (exists ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * 选课服务只需确认学生存在，学生信息只解码 id 和学号
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record StudentSummary(
+        String id,
+        String studentId
+) {
+}
@@ -3,11 +3,24 @@ package com.zjgsu.syt.coursecloud.enrollment.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "user-service", fallback = UserClientFallback.class)
 public interface UserClient {
 
     @GetMapping("/api/students/studentId/{studentId}")
-    Map<String, Object> getStudent(@PathVariable("studentId") String studentId);
+    RemoteResponse<StudentSummary> getStudent(@PathVariable("studentId") String studentId);
+
+    /**
+     * 按学号批量查询（单次最多 MAX_BATCH_SIZE 个），data 为 studentId -> 学生摘要
+     */
+    @PostMapping("/api/students/batch")
+    RemoteResponse<Map<String, StudentSummary>> getStudents(@RequestBody StudentBatchRequest request);
+
+    int MAX_BATCH_SIZE = 500;
+
+    record StudentBatchRequest(List<String> studentIds) {}
 }
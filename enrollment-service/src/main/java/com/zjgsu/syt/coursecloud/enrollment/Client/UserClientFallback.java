@@ -10,8 +10,14 @@ import java.util.Map;
 public class UserClientFallback implements UserClient {
 
     @Override
-    public Map<String, Object> getStudent(String studentId) {
+    public RemoteResponse<StudentSummary> getStudent(String studentId) {
         log.warn("UserClient fallback triggered for student: {}", studentId);
         throw new ServiceUnavailableException("用户服务暂时不可用，请稍后再试");
     }
+
+    @Override
+    public RemoteResponse<Map<String, StudentSummary>> getStudents(StudentBatchRequest request) {
+        log.warn("UserClient fallback triggered for {} students", request.studentIds().size());
+        throw new ServiceUnavailableException("用户服务暂时不可用，请稍后再试");
+    }
 }
@@ -4,12 +4,24 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients  // ✅ 启用 Feign 客户端扫描
+@EnableScheduling  // 抢课模式写后队列定时落库
 public class EnrollmentApplication {
     public static void main(String[] args) {
         SpringApplication.run(EnrollmentApplication.class, args);
     }
+
+    // 远程校验（user-service / catalog-service）并发执行，每次调用一个虚拟线程
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService remoteLookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
 }
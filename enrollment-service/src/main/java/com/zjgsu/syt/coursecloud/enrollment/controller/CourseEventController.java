@@ -0,0 +1,67 @@
+package com.zjgsu.syt.coursecloud.enrollment.controller;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.service.EnrollmentService;
+import com.zjgsu.syt.coursecloud.enrollment.service.FlashEnrollmentEngine;
+import com.zjgsu.syt.coursecloud.enrollment.service.StudentTimetableIndex;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 接收 catalog-service 推送的课程变更通知
+ * 路径不在 /api 下，网关不会转发，只供服务间直接调用
+ */
+@RestController
+@RequestMapping("/internal/course-events")
+public class CourseEventController {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseEventController.class);
+
+    private final CourseSnapshotCache courseSnapshotCache;
+    private final FlashEnrollmentEngine flashEngine;
+    private final EnrollmentService enrollmentService;
+    private final StudentTimetableIndex timetableIndex;
+
+    public CourseEventController(CourseSnapshotCache courseSnapshotCache, FlashEnrollmentEngine flashEngine,
+                                 EnrollmentService enrollmentService, StudentTimetableIndex timetableIndex) {
+        this.courseSnapshotCache = courseSnapshotCache;
+        this.flashEngine = flashEngine;
+        this.enrollmentService = enrollmentService;
+        this.timetableIndex = timetableIndex;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void onCourseChanged(@Valid @RequestBody CourseChangedEvent event) {
+        log.info("Received course change: courseId={}, type={}", event.courseId(), event.type());
+        if (!"SEAT_RELEASED".equals(event.type())) {
+            courseSnapshotCache.invalidate(event.courseId());
+            flashEngine.forget(event.courseId());
+        }
+        // 上课时间可能已变，学生课表按需重建
+        if ("UPDATED".equals(event.type()) || "DELETED".equals(event.type())) {
+            timetableIndex.invalidateAll();
+        }
+        // 扩容或释放座位后递补候补学生
+        if ("UPDATED".equals(event.type()) || "SEAT_RELEASED".equals(event.type())) {
+            try {
+                int promoted = enrollmentService.promoteWaitlist(event.courseId());
+                if (promoted > 0) {
+                    log.info("Promoted {} waitlisted students for course {}", promoted, event.courseId());
+                }
+            } catch (RuntimeException e) {
+                // 递补失败不影响通知本身，下一次退课或座位变更时会再次尝试
+                log.warn("Waitlist promotion for course {} failed: {}", event.courseId(), e.getMessage());
+            }
+        }
+    }
+
+    public record CourseChangedEvent(
+            @NotBlank String courseId,
+            String type
+    ) {}
+}
@@ -1,17 +1,31 @@
 package com.zjgsu.syt.coursecloud.enrollment.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.zjgsu.syt.coursecloud.enrollment.exception.CourseFullException;
+import com.zjgsu.syt.coursecloud.enrollment.exception.ScheduleConflictException;
 import com.zjgsu.syt.coursecloud.enrollment.model.EnrollmentRecord;
+import com.zjgsu.syt.coursecloud.enrollment.service.BatchEnrollmentResult;
 import com.zjgsu.syt.coursecloud.enrollment.service.EnrollmentService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.net.InetAddress;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -23,42 +37,47 @@ public class EnrollmentController {
 
     private static final Logger log = LoggerFactory.getLogger(EnrollmentController.class);
 
-    private final EnrollmentService enrollmentService;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV_HEADER = "id,courseId,studentId,enrolledAt\n";
 
-    @Value("${server.port}")
-    private String currentPort;
+    private final EnrollmentService enrollmentService;
+    private final InstanceIdentity instance;
+    private final ObjectWriter responseWriter;
 
-    public EnrollmentController(EnrollmentService enrollmentService) {
+    public EnrollmentController(EnrollmentService enrollmentService, InstanceIdentity instance,
+                                ObjectMapper objectMapper) {
         this.enrollmentService = enrollmentService;
-    }
-
-    // ==================== 辅助方法：获取主机名 ====================
-    private String getHostname() {
-        // 优先使用环境变量 HOSTNAME (Docker 容器中最可靠)
-        String hostname = System.getenv("HOSTNAME");
-        if (hostname != null && !hostname.isEmpty()) {
-            return hostname;
-        }
-
-        // 备用方案：使用 InetAddress
-        try {
-            return InetAddress.getLocalHost().getHostName();
-        } catch (Exception e) {
-            // 忽略异常
-        }
-
-        // 最后的 fallback
-        return "unknown-" + currentPort;
+        this.instance = instance;
+        this.responseWriter = objectMapper.writerFor(EnrollmentResponse.class);
     }
 
     // ==================== Enrollment Endpoints ====================
     @PostMapping
-    public ResponseEntity<EnrollmentResponse> enroll(@Valid @RequestBody EnrollmentRequest request) {
+    public ResponseEntity<?> enroll(@Valid @RequestBody EnrollmentRequest request) {
         log.info("Enrollment Service [port: {}, hostname: {}] processing enrollment: studentId={}, courseId={}",
-                currentPort, getHostname(), request.studentId(), request.courseId());
+                instance.port(), instance.hostname(), request.studentId(), request.courseId());
 
-        EnrollmentRecord record = enrollmentService.enroll(request.courseId(), request.studentId());
-        return ResponseEntity.status(HttpStatus.CREATED)
+        EnrollmentRecord record;
+        try {
+            record = enrollmentService.enroll(request.courseId(), request.studentId());
+        } catch (ScheduleConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ScheduleConflictResponse(e.getCourseId(), request.studentId(), "SCHEDULE_CONFLICT",
+                            e.getConflictingCourseId()));
+        } catch (CourseFullException e) {
+            // 课程已满时转入候补并返回排位，座位空出后自动递补，客户端无需循环重试
+            int position = enrollmentService.joinWaitlist(request.courseId(), request.studentId());
+            if (position == 0) {
+                // 加入候补后课程恰有空座，已直接递补入课
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(new WaitlistResponse(request.courseId(), request.studentId(), "ENROLLED", 0));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new WaitlistResponse(request.courseId(), request.studentId(), "WAITLISTED", position));
+        }
+        // 抢课模式下记录异步落库，尚未分配 id，返回 202
+        HttpStatus status = record.getId() != null ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status)
                 .body(new EnrollmentResponse(
                         record.getId(),
                         record.getCourseId(),
@@ -67,10 +86,59 @@ public class EnrollmentController {
                 ));
     }
 
+    /**
+     * 批量选课（如导师为整个班级选课），逐条返回处理结果
+     */
+    @PostMapping("/batch")
+    public BatchEnrollmentResponse enrollBatch(@Valid @RequestBody BatchEnrollmentRequest request) {
+        log.info("Enrollment Service [port: {}, hostname: {}] processing batch enrollment: {} items",
+                instance.port(), instance.hostname(), request.items().size());
+
+        List<EnrollmentRecord> requested = request.items().stream()
+                .map(item -> new EnrollmentRecord(item.courseId(), item.studentId()))
+                .toList();
+        List<BatchEnrollmentResult> results = enrollmentService.enrollBatch(requested);
+
+        List<BatchItemResponse> items = results.stream()
+                .map(result -> new BatchItemResponse(
+                        result.courseId(),
+                        result.studentId(),
+                        result.outcome().name(),
+                        result.enrollmentId()
+                ))
+                .toList();
+        int succeeded = (int) results.stream().filter(result -> result.outcome().isSuccess()).count();
+        return new BatchEnrollmentResponse(results.size(), succeeded, items);
+    }
+
+    /**
+     * 查询候补排位（1 为队首）
+     */
+    @GetMapping("/waitlist/{courseId}/{studentId}")
+    public ResponseEntity<WaitlistResponse> waitlistPosition(@PathVariable String courseId, @PathVariable String studentId) {
+        int position = enrollmentService.waitlistPosition(courseId, studentId);
+        if (position == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new WaitlistResponse(courseId, studentId, "WAITLISTED", position));
+    }
+
+    /**
+     * 退课，空出的座位由候补队首递补
+     */
+    @DeleteMapping("/{id}")
+    public DropResponse drop(@PathVariable String id) {
+        log.info("Enrollment Service [port: {}, hostname: {}] dropping enrollment: {}",
+                instance.port(), instance.hostname(), id);
+
+        String promoted = enrollmentService.drop(id);
+        return new DropResponse(id, promoted);
+    }
+
     @GetMapping("/course/{courseId}")
     public List<EnrollmentResponse> listByCourse(@PathVariable String courseId) {
         log.info("Enrollment Service [port: {}, hostname: {}] listing enrollments for course: {}",
-                currentPort, getHostname(), courseId);
+                instance.port(), instance.hostname(), courseId);
 
         return enrollmentService.listByCourse(courseId)
                 .stream()
@@ -86,7 +154,7 @@ public class EnrollmentController {
     @GetMapping("/student/{studentId}")
     public List<EnrollmentResponse> listByStudent(@PathVariable String studentId) {
         log.info("Enrollment Service [port: {}, hostname: {}] listing enrollments for student: {}",
-                currentPort, getHostname(), studentId);
+                instance.port(), instance.hostname(), studentId);
 
         return enrollmentService.listByStudent(studentId)
                 .stream()
@@ -102,7 +170,7 @@ public class EnrollmentController {
     @GetMapping
     public List<EnrollmentResponse> listAll() {
         log.info("Enrollment Service [port: {}, hostname: {}] listing all enrollments",
-                currentPort, getHostname());
+                instance.port(), instance.hostname());
 
         return enrollmentService.listAll()
                 .stream()
@@ -115,20 +183,83 @@ public class EnrollmentController {
                 .toList();
     }
 
+    /**
+     * 流式导出选课记录（format=csv 或 ndjson，可按 courseId / studentId 过滤），边读结果集边写响应
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String courseId,
+            @RequestParam(required = false) String studentId) {
+        log.info("Enrollment Service [port: {}, hostname: {}] exporting enrollments: format={}, courseId={}, studentId={}",
+                instance.port(), instance.hostname(), format, courseId, studentId);
+
+        boolean csv = !"ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            enrollmentService.forEachEnrollment(courseId, studentId, record -> {
+                try {
+                    if (csv) {
+                        writeCsvRow(writer, record);
+                    } else {
+                        writer.write(responseWriter.writeValueAsString(toResponse(record)));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=enrollments." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    private static void writeCsvRow(Writer writer, EnrollmentRecord record) throws IOException {
+        writer.write(csvField(record.getId()));
+        writer.write(',');
+        writer.write(csvField(record.getCourseId()));
+        writer.write(',');
+        writer.write(csvField(record.getStudentId()));
+        writer.write(',');
+        writer.write(String.valueOf(record.getEnrolledAt()));
+        writer.write('\n');
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static EnrollmentResponse toResponse(EnrollmentRecord record) {
+        return new EnrollmentResponse(
+                record.getId(),
+                record.getCourseId(),
+                record.getStudentId(),
+                record.getEnrolledAt().toString()
+        );
+    }
+
     // ==================== 测试接口(负载均衡验证) ====================
     @GetMapping("/test")
     public Map<String, Object> test() {
         Map<String, Object> response = new HashMap<>();
         response.put("service", "enrollment-service");
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-
-        // ★ 添加容器IP
-        try {
-            response.put("ip", InetAddress.getLocalHost().getHostAddress());
-        } catch (Exception e) {
-            response.put("ip", "unknown");
-        }
+        response.put("port", instance.port());
+        response.put("hostname", instance.hostname());
+        // ★ 添加容器IP（启动时解析）
+        response.put("ip", instance.address());
 
         response.put("timestamp", LocalDateTime.now());
         response.put("message", "Enrollment Service is running with OpenFeign integration");
@@ -142,8 +273,8 @@ public class EnrollmentController {
         Map<String, Object> healthResponse = new HashMap<>();
         healthResponse.put("status", "UP");
         healthResponse.put("service", "enrollment-service");
-        healthResponse.put("port", currentPort);
-        healthResponse.put("hostname", getHostname());
+        healthResponse.put("port", instance.port());
+        healthResponse.put("hostname", instance.hostname());
         healthResponse.put("timestamp", System.currentTimeMillis());
         return healthResponse;
     }
@@ -160,4 +291,40 @@ public class EnrollmentController {
             String studentId,
             String enrolledAt
     ) {}
+
+    public record WaitlistResponse(
+            String courseId,
+            String studentId,
+            String status,
+            int position
+    ) {}
+
+    public record ScheduleConflictResponse(
+            String courseId,
+            String studentId,
+            String status,
+            String conflictingCourseId
+    ) {}
+
+    public record DropResponse(
+            String id,
+            String promotedStudentId
+    ) {}
+
+    public record BatchEnrollmentRequest(
+            @NotEmpty @Size(max = 1000) List<@Valid EnrollmentRequest> items
+    ) {}
+
+    public record BatchItemResponse(
+            String courseId,
+            String studentId,
+            String outcome,
+            String id
+    ) {}
+
+    public record BatchEnrollmentResponse(
+            int requested,
+            int succeeded,
+            List<BatchItemResponse> results
+    ) {}
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.zjgsu.syt.coursecloud.enrollment.exception;
+
+/**
+ * 课程已满（或已有学生在候补），调用方可据此把学生转入候补队列
+ */
+public class CourseFullException extends IllegalStateException {
+
+    private final String courseId;
+
+    public CourseFullException(String courseId) {
+        super("Course is full");
+        this.courseId = courseId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.zjgsu.syt.coursecloud.enrollment.exception;
+
+/**
+ * 课程上课时间与学生已选课程重叠
+ */
+public class ScheduleConflictException extends IllegalStateException {
+
+    private final String courseId;
+    private final String conflictingCourseId;
+
+    public ScheduleConflictException(String courseId, String conflictingCourseId) {
+        super("Course " + courseId + " overlaps with enrolled course " + conflictingCourseId);
+        this.courseId = courseId;
+        this.conflictingCourseId = conflictingCourseId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public String getConflictingCourseId() {
+        return conflictingCourseId;
+    }
+}
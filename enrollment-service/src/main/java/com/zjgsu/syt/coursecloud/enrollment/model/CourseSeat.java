@@ -0,0 +1,60 @@
+package com.zjgsu.syt.coursecloud.enrollment.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * 课程已占座位数，选课准入时按课程锁住这一行再与容量比较
+ * 主键由调用方指定，实现 Persistable 使 save 直接 INSERT：并发初始化时后到者在主键冲突处失败，而不是覆盖已有计数
+ */
+@Entity
+@Table(name = "course_seats")
+public class CourseSeat implements Persistable<String> {
+    @Id
+    @Column(name = "course_id", length = 36)
+    private String courseId;
+
+    @Column(nullable = false)
+    private Integer taken;
+
+    @Transient
+    private boolean isNew = true;
+
+    public CourseSeat() {
+        // JPA requires no-arg constructor
+    }
+
+    public CourseSeat(String courseId, int taken) {
+        this.courseId = courseId;
+        this.taken = taken;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return courseId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and Setters
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Integer getTaken() {
+        return taken;
+    }
+
+    public void setTaken(Integer taken) {
+        this.taken = taken;
+    }
+}
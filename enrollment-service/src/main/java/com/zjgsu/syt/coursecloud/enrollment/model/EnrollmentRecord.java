@@ -39,7 +39,10 @@ public class EnrollmentRecord {
 
     @PrePersist
     protected void onCreate() {
-        this.enrolledAt = LocalDateTime.now();
+        // 抢课模式在准入时已记下选课时间，落库时保留，不用写后批次的提交时间覆盖
+        if (this.enrolledAt == null) {
+            this.enrolledAt = LocalDateTime.now();
+        }
     }
 
     // Getters and setters
@@ -0,0 +1,74 @@
+package com.zjgsu.syt.coursecloud.enrollment.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 选课人数增量 outbox
+ * 与 enrollments 的写入处于同一事务，由 OutboxRelay 按批认领（写入 batchId）后推送给 catalog-service，
+ * 推送成功再删除。batchId 同时作为 catalog-service 端的幂等键。
+ */
+@Entity
+@Table(name = "enrollment_outbox", indexes = {
+    @Index(name = "idx_outbox_batch_created", columnList = "batch_id, created_at")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "course_id", nullable = false, length = 36)
+    private String courseId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    public OutboxEvent() {
+        // JPA requires no-arg constructor
+    }
+
+    public OutboxEvent(String courseId, int delta) {
+        this.courseId = courseId;
+        this.delta = delta;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+}
@@ -0,0 +1,60 @@
+package com.zjgsu.syt.coursecloud.enrollment.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 候补记录，ticket 为数据库自增生成的排队号，单调递增，课程内按 ticket 排序即为加入顺序
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+    @Index(name = "idx_waitlist_course_ticket", columnList = "course_id, ticket")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_waitlist_course_student", columnNames = {"course_id", "student_id"})
+})
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long ticket;
+
+    @Column(name = "course_id", nullable = false, length = 36)
+    private String courseId;
+
+    @Column(name = "student_id", nullable = false, length = 36)
+    private String studentId;
+
+    @Column(name = "requested_at", nullable = false, updatable = false)
+    private LocalDateTime requestedAt;
+
+    public WaitlistEntry() {
+        // JPA requires no-arg constructor
+    }
+
+    public WaitlistEntry(String courseId, String studentId) {
+        this.courseId = courseId;
+        this.studentId = studentId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.requestedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public Long getTicket() {
+        return ticket;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+}
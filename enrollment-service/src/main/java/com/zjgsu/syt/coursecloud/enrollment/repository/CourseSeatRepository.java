@@ -0,0 +1,20 @@
+package com.zjgsu.syt.coursecloud.enrollment.repository;
+
+import com.zjgsu.syt.coursecloud.enrollment.model.CourseSeat;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CourseSeatRepository extends JpaRepository<CourseSeat, String> {
+
+    // ✅ SELECT ... FOR UPDATE：同一课程的占座/释放串行执行，读到的是最新提交的计数
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CourseSeat s WHERE s.courseId = :courseId")
+    Optional<CourseSeat> lockByCourseId(@Param("courseId") String courseId);
+}
@@ -1,12 +1,17 @@
 package com.zjgsu.syt.coursecloud.enrollment.repository;
 
 import com.zjgsu.syt.coursecloud.enrollment.model.EnrollmentRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<EnrollmentRecord, String> {
@@ -18,6 +23,34 @@ public interface EnrollmentRepository extends JpaRepository<EnrollmentRecord, St
     @Query("SELECT e FROM EnrollmentRecord e WHERE e.studentId = :studentId")
     List<EnrollmentRecord> findByStudentId(@Param("studentId") String studentId);
 
+    // 构建学生课表索引只需要课程 id
+    @Query("SELECT e.courseId FROM EnrollmentRecord e WHERE e.studentId = :studentId")
+    List<String> findCourseIdsByStudentId(@Param("studentId") String studentId);
+
     @Query("SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END FROM EnrollmentRecord e WHERE e.courseId = :courseId AND e.studentId = :studentId")
     boolean existsByCourseIdAndStudentId(@Param("courseId") String courseId, @Param("studentId") String studentId);
-}
\ No newline at end of file
+
+    // 批量选课查重：一次 IN 查询取回候选组合，调用方再按 (courseId, studentId) 精确过滤
+    @Query("SELECT e.courseId, e.studentId FROM EnrollmentRecord e WHERE e.courseId IN :courseIds AND e.studentId IN :studentIds")
+    List<Object[]> findPairsIn(@Param("courseIds") Collection<String> courseIds,
+                               @Param("studentIds") Collection<String> studentIds);
+
+    @Query("SELECT COUNT(e) FROM EnrollmentRecord e WHERE e.courseId = :courseId")
+    long countByCourseId(@Param("courseId") String courseId);
+
+    @Query("SELECT e.courseId, COUNT(e) FROM EnrollmentRecord e GROUP BY e.courseId")
+    List<Object[]> countGroupByCourseId();
+
+    // 流式导出：固定 fetch size 逐批读取结果集（MySQL 需配合 useCursorFetch=true）
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e FROM EnrollmentRecord e")
+    Stream<EnrollmentRecord> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e FROM EnrollmentRecord e WHERE e.courseId = :courseId")
+    Stream<EnrollmentRecord> streamByCourseId(@Param("courseId") String courseId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e FROM EnrollmentRecord e WHERE e.studentId = :studentId")
+    Stream<EnrollmentRecord> streamByStudentId(@Param("studentId") String studentId);
+}
@@ -0,0 +1,38 @@
+package com.zjgsu.syt.coursecloud.enrollment.repository;
+
+import com.zjgsu.syt.coursecloud.enrollment.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, String> {
+
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.batchId IS NULL ORDER BY e.createdAt")
+    List<String> findUnclaimedIds(Pageable pageable);
+
+    // ✅ 条件认领：多个实例同时认领时，每一行只会归属一个批次
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.batchId = :batchId, e.claimedAt = :claimedAt WHERE e.id IN :ids AND e.batchId IS NULL")
+    int claim(@Param("ids") Collection<String> ids, @Param("batchId") String batchId,
+              @Param("claimedAt") LocalDateTime claimedAt);
+
+    // 按课程汇总一个批次：courseId, 增量之和, 事件行数
+    @Query("SELECT e.courseId, SUM(e.delta), COUNT(e) FROM OutboxEvent e WHERE e.batchId = :batchId GROUP BY e.courseId")
+    List<Object[]> sumDeltasByBatch(@Param("batchId") String batchId);
+
+    // 已认领但长时间未完成的批次（认领实例宕机或推送失败）
+    @Query("SELECT DISTINCT e.batchId FROM OutboxEvent e WHERE e.batchId IS NOT NULL AND e.claimedAt < :before")
+    List<String> findStaleBatchIds(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.batchId = :batchId")
+    int deleteByBatchId(@Param("batchId") String batchId);
+}
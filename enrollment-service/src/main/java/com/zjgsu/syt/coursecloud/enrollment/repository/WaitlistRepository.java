@@ -0,0 +1,29 @@
+package com.zjgsu.syt.coursecloud.enrollment.repository;
+
+import com.zjgsu.syt.coursecloud.enrollment.model.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    Optional<WaitlistEntry> findByCourseIdAndStudentId(String courseId, String studentId);
+
+    // 队首加行锁（SELECT ... ORDER BY ticket LIMIT 1 FOR UPDATE），并发递补时后到者等待前者提交
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<WaitlistEntry> findFirstByCourseIdOrderByTicketAsc(String courseId);
+
+    boolean existsByCourseId(String courseId);
+
+    long countByCourseId(String courseId);
+
+    // 排位 = 课程内排队号不大于自己的人数，走 (course_id, ticket) 索引
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.courseId = :courseId AND w.ticket <= :ticket")
+    long countUpToTicket(@Param("courseId") String courseId, @Param("ticket") long ticket);
+}
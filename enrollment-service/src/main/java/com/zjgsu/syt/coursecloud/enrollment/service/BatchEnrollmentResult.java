@@ -0,0 +1,28 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+/**
+ * 批量选课中单个条目的处理结果
+ *
+ * @param enrollmentId 成功落库时的选课记录 id；抢课模式下异步落库，为 null
+ */
+public record BatchEnrollmentResult(String courseId, String studentId, Outcome outcome, String enrollmentId) {
+
+    public enum Outcome {
+        ENROLLED,
+        ACCEPTED,
+        ALREADY_ENROLLED,
+        DUPLICATE_IN_REQUEST,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        SCHEDULE_CONFLICT,
+        COURSE_FULL;
+
+        public boolean isSuccess() {
+            return this == ENROLLED || this == ACCEPTED;
+        }
+    }
+
+    static BatchEnrollmentResult of(String courseId, String studentId, Outcome outcome) {
+        return new BatchEnrollmentResult(courseId, studentId, outcome, null);
+    }
+}
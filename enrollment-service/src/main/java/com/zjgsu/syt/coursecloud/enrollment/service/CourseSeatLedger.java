@@ -0,0 +1,112 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.model.CourseSeat;
+import com.zjgsu.syt.coursecloud.enrollment.repository.CourseSeatRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 课程座位台账（course_seats 表）
+ * 同步选课、批量选课和候补递补都先在这里占座：锁住课程的计数行后与容量比较并更新，同一课程的准入在数据库中串行，
+ * 多个实例同时选课也不会超过容量。占座与选课记录在同一事务内提交，回滚时一起撤销。
+ * 计数行在课程第一次用到时按已落库的选课记录数初始化，之后随选课、退课增量维护。
+ * 台账是选课容量的唯一依据：选课、退课不调用 catalog-service 的占座/释放接口，catalog 中课程的 enrolled
+ * 只是经 outbox 增量异步追平的派生副本，用于展示，不参与准入。退课空出的座位在退课事务内直接递补候补，
+ * 不依赖 catalog 的 SEAT_RELEASED 通知。
+ */
+@Component
+public class CourseSeatLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSeatLedger.class);
+
+    private final CourseSeatRepository repository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate initTransaction;
+
+    public CourseSeatLedger(CourseSeatRepository repository, EnrollmentRepository enrollmentRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.initTransaction = new TransactionTemplate(transactionManager);
+        this.initTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 占一个座位
+     *
+     * @return false 如果已占座位数达到容量
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(String courseId, int capacity) {
+        return reserve(courseId, 1, capacity) == 1;
+    }
+
+    /**
+     * 最多占 wanted 个座位，不足时占满为止
+     *
+     * @return 实际占到的座位数
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int reserve(String courseId, int wanted, int capacity) {
+        CourseSeat seat = lock(courseId);
+        int granted = Math.max(0, Math.min(wanted, capacity - seat.getTaken()));
+        seat.setTaken(seat.getTaken() + granted);
+        return granted;
+    }
+
+    /**
+     * 归还座位（退课，或占座后没有可入课的学生）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String courseId, int count) {
+        CourseSeat seat = lock(courseId);
+        seat.setTaken(Math.max(0, seat.getTaken() - count));
+    }
+
+    /**
+     * 计入已在别处准入的选课（抢课模式批量落库），不检查容量
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String courseId, int count) {
+        CourseSeat seat = lock(courseId);
+        seat.setTaken(seat.getTaken() + count);
+    }
+
+    /**
+     * 计数行不存在时在独立事务中初始化并提交
+     * 选课应在自己的事务开始前调用：事务内首次用到某门课程时初始化需要再占用一个数据库连接
+     */
+    public void ensure(String courseId) {
+        // 先用普通读判断计数行是否存在：对不存在的行加锁读会在 MySQL 上留下间隙锁，挡住独立事务的插入
+        if (!repository.existsById(courseId)) {
+            initialize(courseId);
+        }
+    }
+
+    private CourseSeat lock(String courseId) {
+        ensure(courseId);
+        return repository.lockByCourseId(courseId)
+                .orElseThrow(() -> new IllegalStateException("Seat ledger row missing for course " + courseId));
+    }
+
+    private void initialize(String courseId) {
+        try {
+            initTransaction.executeWithoutResult(status -> {
+                long taken = enrollmentRepository.countByCourseId(courseId);
+                repository.saveAndFlush(new CourseSeat(courseId, (int) taken));
+                log.info("Seat ledger initialized: courseId={}, taken={}", courseId, taken);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 并发初始化，另一方已插入
+            log.debug("Seat ledger for course {} initialized concurrently", courseId);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.model.WaitlistEntry;
+import com.zjgsu.syt.coursecloud.enrollment.repository.WaitlistRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 课程候补名单（waitlist_entries 表）
+ * 排队号由数据库自增生成，顺序、队首和排位都以表中数据为准，多个 enrollment-service 实例共用同一个队列。
+ * 取队首沿 (course_id, ticket) 索引定位并加行锁，为 O(log n)；排位为同一索引上的一次范围计数。
+ * 写操作只能在调用方的事务内执行，与选课记录的增删一起提交或回滚。
+ */
+@Component
+public class CourseWaitlist {
+
+    private final WaitlistRepository repository;
+
+    public CourseWaitlist(WaitlistRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * 加入候补，已在队列中时直接返回当前排位
+     *
+     * @return 排位（1 为队首）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int join(String courseId, String studentId) {
+        // 同一学生并发加入时撞上 (course_id, student_id) 唯一键，后到者的事务回滚
+        WaitlistEntry entry = repository.findByCourseIdAndStudentId(courseId, studentId)
+                .orElseGet(() -> repository.saveAndFlush(new WaitlistEntry(courseId, studentId)));
+        return (int) repository.countUpToTicket(courseId, entry.getTicket());
+    }
+
+    /**
+     * 取出队首学生并删除其候补记录
+     * 队首行锁到事务结束，其他实例的并发递补在锁上等待，不会取到同一个学生；递补回滚时记录随事务恢复
+     *
+     * @return 队首学生学号，没有候补时返回 null
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String pollNext(String courseId) {
+        return repository.findFirstByCourseIdOrderByTicketAsc(courseId)
+                .map(head -> {
+                    repository.delete(head);
+                    return head.getStudentId();
+                })
+                .orElse(null);
+    }
+
+    /**
+     * @return 排位（1 为队首）；不在候补中时返回 0
+     */
+    public int position(String courseId, String studentId) {
+        return repository.findByCourseIdAndStudentId(courseId, studentId)
+                .map(entry -> (int) repository.countUpToTicket(courseId, entry.getTicket()))
+                .orElse(0);
+    }
+
+    public boolean hasWaiting(String courseId) {
+        return repository.existsByCourseId(courseId);
+    }
+
+    public int size(String courseId) {
+        return (int) repository.countByCourseId(courseId);
+    }
+}
@@ -0,0 +1,44 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.model.EnrollmentRecord;
+import com.zjgsu.syt.coursecloud.enrollment.model.OutboxEvent;
+import com.zjgsu.syt.coursecloud.enrollment.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 选课人数增量的 outbox 写入端
+ * 只能在写 enrollments 的事务内调用，同一事务内同一课程的增量合并为一行，由 OutboxRelay 异步推送。
+ */
+@Component
+public class EnrollmentOutbox {
+
+    private final OutboxEventRepository repository;
+
+    public EnrollmentOutbox(OutboxEventRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * 记录新落库的选课，每门课程 +N
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEnrolled(Collection<EnrollmentRecord> records) {
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        records.forEach(record -> deltas.merge(record.getCourseId(), 1, Integer::sum));
+        deltas.forEach((courseId, delta) -> repository.save(new OutboxEvent(courseId, delta)));
+    }
+
+    /**
+     * 记录退课，课程 -1
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDropped(EnrollmentRecord record) {
+        repository.save(new OutboxEvent(record.getCourseId(), -1));
+    }
+}
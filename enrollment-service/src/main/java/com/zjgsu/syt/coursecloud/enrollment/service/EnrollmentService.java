@@ -1,15 +1,40 @@
 package com.zjgsu.syt.coursecloud.enrollment.service;
 
-import com.zjgsu.syt.coursecloud.enrollment.client.UserClient;
-import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupCache;
+import com.zjgsu.syt.coursecloud.enrollment.exception.CourseFullException;
+import com.zjgsu.syt.coursecloud.enrollment.exception.ScheduleConflictException;
 import com.zjgsu.syt.coursecloud.enrollment.model.EnrollmentRecord;
 import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -17,45 +42,456 @@ public class EnrollmentService {
 
     private static final Logger log = LoggerFactory.getLogger(EnrollmentService.class);
 
-    private final UserClient userClient;
-    private final CatalogClient catalogClient;
+    private final StudentLookupCache studentLookupCache;
+    private final CourseSnapshotCache courseSnapshotCache;
     private final EnrollmentRepository repository;
+    private final FlashEnrollmentEngine flashEngine;
+    private final EnrollmentOutbox outbox;
+    private final CourseWaitlist waitlist;
+    private final StudentTimetableIndex timetableIndex;
+    private final CourseSeatLedger seats;
+    private final TransactionTemplate transactionTemplate;
 
-    public EnrollmentService(UserClient userClient, CatalogClient catalogClient, EnrollmentRepository repository) {
-        this.userClient = userClient;
-        this.catalogClient = catalogClient;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${enrollment.lookup.user-timeout-ms:3000}")
+    private long userLookupTimeoutMs;
+
+    @Value("${enrollment.lookup.catalog-timeout-ms:3000}")
+    private long catalogLookupTimeoutMs;
+
+    public EnrollmentService(StudentLookupCache studentLookupCache, CourseSnapshotCache courseSnapshotCache,
+                             EnrollmentRepository repository, FlashEnrollmentEngine flashEngine,
+                             EnrollmentOutbox outbox, CourseWaitlist waitlist,
+                             StudentTimetableIndex timetableIndex, CourseSeatLedger seats,
+                             PlatformTransactionManager transactionManager) {
+        this.studentLookupCache = studentLookupCache;
+        this.courseSnapshotCache = courseSnapshotCache;
         this.repository = repository;
+        this.flashEngine = flashEngine;
+        this.outbox = outbox;
+        this.waitlist = waitlist;
+        this.timetableIndex = timetableIndex;
+        this.seats = seats;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * 远程校验在事务之外完成，数据库连接只在最后的准入事务中占用
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EnrollmentRecord enroll(String courseId, String studentId) {
         log.info("开始选课: studentId={}, courseId={}", studentId, courseId);
 
-        if (repository.existsByCourseIdAndStudentId(courseId, studentId)) {
+        // 1. 两个远程校验同时发出，各自独立超时；Feign 代理内的熔断器照常生效
+        CompletableFuture<Boolean> studentLookup = studentLookupCache.exists(studentId)
+                .orTimeout(userLookupTimeoutMs, TimeUnit.MILLISECONDS);
+        CompletableFuture<CourseSnapshot> courseLookup = courseSnapshotCache.get(courseId)
+                .orTimeout(catalogLookupTimeoutMs, TimeUnit.MILLISECONDS);
+
+        // 2. 远程调用进行中时检查重复选课（抢课模式下由 FlashEnrollmentEngine 负责）
+        if (!flashEngine.isEnabled() && repository.existsByCourseIdAndStudentId(courseId, studentId)) {
+            studentLookup.cancel(true);
+            courseLookup.cancel(true);
             throw new IllegalStateException("Student is already enrolled in this course");
         }
 
-        try {
-            Map<String, Object> studentResponse = userClient.getStudent(studentId);
-            log.info("✅ 学生验证成功: {}", studentResponse);
-        } catch (Exception e) {
-            log.error("调用 user-service 出错: {}", e.getMessage(), e);
-            throw new RuntimeException("user-service unavailable: " + e.getMessage());
+        if (!await(studentLookup, "user-service")) {
+            courseLookup.cancel(true);
+            throw new IllegalArgumentException("Student with studentId " + studentId + " not found");
         }
+        log.debug("✅ 学生验证成功: {}", studentId);
 
-        try {
-            Map<String, Object> courseResponse = catalogClient.getCourse(courseId);
-            log.info("✅ 课程验证成功: {}", courseResponse);
-        } catch (Exception e) {
-            log.error("调用 catalog-service 出错: {}", e.getMessage(), e);
-            throw new RuntimeException("catalog-service unavailable: " + e.getMessage());
+        CourseSnapshot course = await(courseLookup, "catalog-service");
+        if (course == null) {
+            throw new IllegalArgumentException("Course with id " + courseId + " not found");
+        }
+        log.debug("✅ 课程验证成功: {}", course);
+
+        if (!flashEngine.isEnabled()) {
+            seats.ensure(courseId);
+        }
+        return transactionTemplate.execute(status -> admit(courseId, studentId, course));
+    }
+
+    private EnrollmentRecord admit(String courseId, String studentId, CourseSnapshot course) {
+        // 3. 上课时间与已选课程重叠时拒绝；占用的时间段在事务回滚（包括下面的课程已满）时释放
+        timetableIndex.reserve(studentId, course);
+
+        // 4. 已有学生在候补时新请求不能插队，按已满处理
+        if (waitlist.hasWaiting(courseId)) {
+            throw new CourseFullException(courseId);
+        }
+
+        if (flashEngine.isEnabled()) {
+            EnrollmentRecord accepted = flashEngine.admit(courseId, studentId, course);
+            log.info("抢课模式准入成功，等待批量落库: studentId={}, courseId={}", studentId, courseId);
+            return accepted;
+        }
+
+        // 锁住课程座位计数后占座，并发选课不会超过容量；事务回滚（包括下面的重复选课）时一并撤销
+        if (!seats.tryReserve(courseId, course.capacity())) {
+            throw new CourseFullException(courseId);
         }
 
         EnrollmentRecord record = new EnrollmentRecord(courseId, studentId);
         EnrollmentRecord saved = repository.save(record);
+        // 与选课记录同一事务写 outbox，课程人数由 OutboxRelay 异步同步到 catalog-service
+        outbox.recordEnrolled(List.of(saved));
         log.info("选课成功: {}", saved);
         return saved;
     }
 
+    /**
+     * 批量选课：学生、课程各做一次批量校验，查重只走一次 IN 查询，插入一次 flush 内按 JDBC batch 合并
+     * 容量准入与单条选课相同：按课程在座位台账上占座，课程有候补时不占座，超出部分记为 COURSE_FULL
+     * 与已选课程或本批次中排在前面的条目上课时间重叠的条目记为 SCHEDULE_CONFLICT
+     *
+     * @param requested 待选课条目（仅含 courseId 与 studentId）
+     * @return 与 requested 一一对应的处理结果
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchEnrollmentResult> enrollBatch(List<EnrollmentRecord> requested) {
+        log.info("开始批量选课: {} 条", requested.size());
+
+        Set<String> studentIds = new LinkedHashSet<>();
+        Set<String> courseIds = new LinkedHashSet<>();
+        for (EnrollmentRecord record : requested) {
+            studentIds.add(record.getStudentId());
+            courseIds.add(record.getCourseId());
+        }
+
+        // 1. 学生、课程批量校验并发发出，缓存命中的条目不会产生远程调用
+        CompletableFuture<Map<String, Boolean>> studentLookup = studentLookupCache.existsAll(studentIds)
+                .orTimeout(userLookupTimeoutMs, TimeUnit.MILLISECONDS);
+        CompletableFuture<Map<String, CourseSnapshot>> courseLookup = courseSnapshotCache.getAll(courseIds)
+                .orTimeout(catalogLookupTimeoutMs, TimeUnit.MILLISECONDS);
+        Map<String, Boolean> students = await(studentLookup, "user-service");
+        Map<String, CourseSnapshot> courses = await(courseLookup, "catalog-service");
+
+        // 2. 逐条判定，收集通过校验的候选记录
+        BatchEnrollmentResult[] results = new BatchEnrollmentResult[requested.size()];
+        List<EnrollmentRecord> candidates = new ArrayList<>();
+        List<Integer> candidateIndexes = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Map<String, StudentTimetable> requestedSlots = new HashMap<>();
+        for (int i = 0; i < requested.size(); i++) {
+            String courseId = requested.get(i).getCourseId();
+            String studentId = requested.get(i).getStudentId();
+            BatchEnrollmentResult.Outcome rejection = null;
+            if (!seen.add(FlashEnrollmentEngine.key(courseId, studentId))) {
+                rejection = BatchEnrollmentResult.Outcome.DUPLICATE_IN_REQUEST;
+            } else if (!Boolean.TRUE.equals(students.get(studentId))) {
+                rejection = BatchEnrollmentResult.Outcome.STUDENT_NOT_FOUND;
+            } else if (!courses.containsKey(courseId)) {
+                rejection = BatchEnrollmentResult.Outcome.COURSE_NOT_FOUND;
+            } else if (conflictsInBatch(studentId, courses.get(courseId), requestedSlots)) {
+                rejection = BatchEnrollmentResult.Outcome.SCHEDULE_CONFLICT;
+            }
+            if (rejection != null) {
+                results[i] = BatchEnrollmentResult.of(courseId, studentId, rejection);
+            } else {
+                candidates.add(new EnrollmentRecord(courseId, studentId));
+                candidateIndexes.add(i);
+            }
+        }
+
+        // 3. 查重、占座并落库（抢课模式下由 FlashEnrollmentEngine 占座并异步落库）
+        List<BatchEnrollmentResult> outcomes = flashEngine.isEnabled()
+                ? transactionTemplate.execute(status -> recordInTimetables(flashEngine.admitAll(candidates, courses), courses))
+                : insertNew(candidates, courses);
+        for (int i = 0; i < outcomes.size(); i++) {
+            results[candidateIndexes.get(i)] = outcomes.get(i);
+        }
+
+        long succeeded = Arrays.stream(results).filter(result -> result.outcome().isSuccess()).count();
+        log.info("批量选课完成: 请求 {} 条，成功 {} 条", requested.size(), succeeded);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 整批在一个事务内占座并插入；与并发的单条选课撞上唯一键时整批回滚，改为逐条插入，冲突的条目记为已选
+     */
+    private List<BatchEnrollmentResult> insertNew(List<EnrollmentRecord> candidates, Map<String, CourseSnapshot> courses) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        // 按 courseId 顺序占座，两个批次交叉加行锁时不会死锁
+        Map<String, List<Integer>> indexesByCourse = new TreeMap<>();
+        Set<String> studentIds = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            indexesByCourse.computeIfAbsent(candidates.get(i).getCourseId(), id -> new ArrayList<>()).add(i);
+            studentIds.add(candidates.get(i).getStudentId());
+        }
+        indexesByCourse.keySet().forEach(seats::ensure);
+
+        try {
+            return transactionTemplate.execute(status -> insertAll(candidates, indexesByCourse, studentIds, courses));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("批量选课与并发选课冲突，改为逐条插入: {} 条", candidates.size());
+        }
+        return candidates.stream()
+                .map(candidate -> insertOne(candidate.getCourseId(), candidate.getStudentId(),
+                        courses.get(candidate.getCourseId())))
+                .toList();
+    }
+
+    private List<BatchEnrollmentResult> insertAll(List<EnrollmentRecord> candidates, Map<String, List<Integer>> indexesByCourse,
+                                                  Set<String> studentIds, Map<String, CourseSnapshot> courses) {
+        Set<String> existing = flashEngine.persistedKeys(indexesByCourse.keySet(), studentIds);
+        BatchEnrollmentResult[] results = new BatchEnrollmentResult[candidates.size()];
+        List<EnrollmentRecord> toInsert = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        indexesByCourse.forEach((courseId, indexes) -> {
+            List<Integer> fresh = new ArrayList<>(indexes.size());
+            for (int i : indexes) {
+                EnrollmentRecord candidate = candidates.get(i);
+                if (existing.contains(FlashEnrollmentEngine.key(courseId, candidate.getStudentId()))) {
+                    results[i] = BatchEnrollmentResult.of(courseId, candidate.getStudentId(),
+                            BatchEnrollmentResult.Outcome.ALREADY_ENROLLED);
+                } else {
+                    fresh.add(i);
+                }
+            }
+            // 按请求顺序占座，占不到的条目记为已满；已有学生在候补时与单条选课一样不能插队
+            int granted = fresh.isEmpty() || waitlist.hasWaiting(courseId)
+                    ? 0
+                    : seats.reserve(courseId, fresh.size(), courses.get(courseId).capacity());
+            for (int j = 0; j < fresh.size(); j++) {
+                int i = fresh.get(j);
+                if (j < granted) {
+                    toInsert.add(candidates.get(i));
+                    insertIndexes.add(i);
+                } else {
+                    results[i] = BatchEnrollmentResult.of(courseId, candidates.get(i).getStudentId(),
+                            BatchEnrollmentResult.Outcome.COURSE_FULL);
+                }
+            }
+        });
+
+        repository.saveAll(toInsert);
+        outbox.recordEnrolled(toInsert);
+        repository.flush();
+
+        for (int i : insertIndexes) {
+            EnrollmentRecord inserted = candidates.get(i);
+            results[i] = new BatchEnrollmentResult(inserted.getCourseId(), inserted.getStudentId(),
+                    BatchEnrollmentResult.Outcome.ENROLLED, inserted.getId());
+        }
+        return recordInTimetables(Arrays.asList(results), courses);
+    }
+
+    /**
+     * 单条占座并插入，在自己的事务中提交；唯一键冲突说明学生已通过其它请求选上
+     */
+    private BatchEnrollmentResult insertOne(String courseId, String studentId, CourseSnapshot course) {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (repository.existsByCourseIdAndStudentId(courseId, studentId)) {
+                    return BatchEnrollmentResult.of(courseId, studentId, BatchEnrollmentResult.Outcome.ALREADY_ENROLLED);
+                }
+                if (waitlist.hasWaiting(courseId) || !seats.tryReserve(courseId, course.capacity())) {
+                    return BatchEnrollmentResult.of(courseId, studentId, BatchEnrollmentResult.Outcome.COURSE_FULL);
+                }
+                EnrollmentRecord saved = repository.saveAndFlush(new EnrollmentRecord(courseId, studentId));
+                outbox.recordEnrolled(List.of(saved));
+                return recordInTimetables(List.of(new BatchEnrollmentResult(courseId, studentId,
+                        BatchEnrollmentResult.Outcome.ENROLLED, saved.getId())), Map.of(courseId, course)).get(0);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return BatchEnrollmentResult.of(courseId, studentId, BatchEnrollmentResult.Outcome.ALREADY_ENROLLED);
+        }
+    }
+
+    /**
+     * 检查学生的已选课程和本批次中已判定通过的条目，不冲突时把该条目计入本批次的时间段
+     * 排在前面的条目之后因课程已满等原因未选上时，与它重叠的条目仍按冲突处理
+     */
+    private boolean conflictsInBatch(String studentId, CourseSnapshot course, Map<String, StudentTimetable> requestedSlots) {
+        if (timetableIndex.conflictWith(studentId, course) != null) {
+            return true;
+        }
+        StudentTimetable slots = requestedSlots.computeIfAbsent(studentId, id -> new StudentTimetable());
+        if (slots.conflictWith(course) != null) {
+            return true;
+        }
+        slots.add(course);
+        return false;
+    }
+
+    /**
+     * 批量选课的时间冲突已在逐条判定时检查，成功的条目在提交后同步到学生课表索引
+     */
+    private List<BatchEnrollmentResult> recordInTimetables(List<BatchEnrollmentResult> outcomes,
+                                                           Map<String, CourseSnapshot> courses) {
+        for (BatchEnrollmentResult outcome : outcomes) {
+            if (outcome.outcome().isSuccess()) {
+                timetableIndex.recordAfterCommit(outcome.studentId(), courses.get(outcome.courseId()));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * 课程已满时加入候补，之后有座位空出会按排队顺序自动递补，学生无需反复重试选课
+     * 加入提交后立即按空余座位递补一次：选课请求因已有候补被拒时课程可能有空座（扩容、退课时跳过了递补），
+     * 不能让座位空着而学生在排队
+     *
+     * @return 排位（1 为队首）；加入后即被递补入课时返回 0
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int joinWaitlist(String courseId, String studentId) {
+        int position = transactionTemplate.execute(status -> waitlist.join(courseId, studentId));
+        log.info("加入候补: studentId={}, courseId={}, position={}", studentId, courseId, position);
+        try {
+            if (transactionTemplate.execute(status -> promoteWaitlist(courseId)) == 0) {
+                return position;
+            }
+        } catch (RuntimeException e) {
+            // 候补已提交，递补失败不影响加入结果，由之后的加入候补或课程变更通知递补
+            log.warn("加入候补后递补失败: courseId={}, {}", courseId, e.getMessage());
+            return position;
+        }
+        return waitlist.position(courseId, studentId);
+    }
+
+    /**
+     * 查询候补排位，按 waitlist_entries 计算，各实例返回相同的排位
+     *
+     * @return 排位（1 为队首）；不在候补中时返回 0
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int waitlistPosition(String courseId, String studentId) {
+        return waitlist.position(courseId, studentId);
+    }
+
+    /**
+     * 退课：删除选课记录、归还座位并写入 outbox 的 -1，同一事务内由候补队首递补空出的座位
+     *
+     * @return 递补入课的学生学号；没有候补时返回 null
+     */
+    public String drop(String enrollmentId) {
+        EnrollmentRecord record = repository.findById(enrollmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Enrollment with id " + enrollmentId + " not found"));
+        String courseId = record.getCourseId();
+        repository.delete(record);
+        seats.release(courseId, 1);
+        outbox.recordDropped(record);
+        timetableIndex.releaseAfterCommit(record.getStudentId(), courseId);
+        log.info("退课成功: studentId={}, courseId={}", record.getStudentId(), courseId);
+
+        String promoted = null;
+        if (waitlist.hasWaiting(courseId)) {
+            CourseSnapshot course = null;
+            try {
+                course = await(courseSnapshotCache.get(courseId)
+                        .orTimeout(catalogLookupTimeoutMs, TimeUnit.MILLISECONDS), "catalog-service");
+            } catch (RuntimeException e) {
+                // 递补需要课程容量和上课时间；catalog-service 不可用时只完成退课，由之后的加入候补或课程变更通知递补。
+                // 只捕获这一步：递补本身的失败已把事务标记为只回滚，吞掉异常只会让提交时失败
+                log.warn("退课后递补跳过: courseId={}, {}", courseId, e.getMessage());
+            }
+            if (course != null) {
+                promoted = promoteNext(course, admissionCapacity(course));
+            }
+        }
+        forgetFlashCounterAfterCommit(courseId);
+        return promoted;
+    }
+
+    /**
+     * 课程扩容或 catalog-service 释放座位后，按空余座位数递补候补学生
+     *
+     * @return 递补人数
+     */
+    public int promoteWaitlist(String courseId) {
+        if (!waitlist.hasWaiting(courseId)) {
+            return 0;
+        }
+        CourseSnapshot course = await(courseSnapshotCache.get(courseId)
+                .orTimeout(catalogLookupTimeoutMs, TimeUnit.MILLISECONDS), "catalog-service");
+        if (course == null) {
+            return 0;
+        }
+        int capacity = admissionCapacity(course);
+        int promoted = 0;
+        while (promoteNext(course, capacity) != null) {
+            promoted++;
+        }
+        if (promoted > 0) {
+            forgetFlashCounterAfterCommit(courseId);
+        }
+        return promoted;
+    }
+
+    /**
+     * 先占座再取出候补队首为其选课；候补期间已通过其它途径选上、或已选了时间冲突课程的学生直接跳过
+     *
+     * @return 递补入课的学生学号；没有空座或没有可递补的学生时返回 null
+     */
+    private String promoteNext(CourseSnapshot course, int capacity) {
+        String courseId = course.id();
+        if (!seats.tryReserve(courseId, capacity)) {
+            return null;
+        }
+        for (String studentId = waitlist.pollNext(courseId); studentId != null; studentId = waitlist.pollNext(courseId)) {
+            if (repository.existsByCourseIdAndStudentId(courseId, studentId)) {
+                continue;
+            }
+            try {
+                timetableIndex.reserve(studentId, course);
+            } catch (ScheduleConflictException e) {
+                log.info("候补学生课程时间冲突，跳过: studentId={}, {}", studentId, e.getMessage());
+                continue;
+            }
+            EnrollmentRecord saved = repository.save(new EnrollmentRecord(courseId, studentId));
+            outbox.recordEnrolled(List.of(saved));
+            log.info("候补递补成功: studentId={}, courseId={}", studentId, courseId);
+            return studentId;
+        }
+        seats.release(courseId, 1);
+        return null;
+    }
+
+    /**
+     * 抢课模式下已准入但尚未落库的记录还没有计入座位台账，递补时从容量中扣除
+     */
+    private int admissionCapacity(CourseSnapshot course) {
+        return flashEngine.isEnabled()
+                ? (int) Math.max(0, course.capacity() - flashEngine.pendingCount(course.id()))
+                : course.capacity();
+    }
+
+    /**
+     * 退课/递补绕过了抢课模式的内存座位计数，提交后丢弃该课程的计数器，下次选课时按库中人数重新初始化
+     */
+    private void forgetFlashCounterAfterCommit(String courseId) {
+        if (!flashEngine.isEnabled()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                flashEngine.forget(courseId);
+            }
+        });
+    }
+
+    private static <T> T await(CompletableFuture<T> lookup, String service) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                log.error("调用 {} 超时", service);
+                throw new RuntimeException(service + " unavailable: lookup timed out");
+            }
+            log.error("调用 {} 出错: {}", service, cause.getMessage(), cause);
+            throw new RuntimeException(service + " unavailable: " + cause.getMessage());
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<EnrollmentRecord> listByCourse(String courseId) {
         return repository.findByCourseId(courseId);
@@ -70,4 +506,19 @@ public class EnrollmentService {
     public List<EnrollmentRecord> listAll() {
         return repository.findAll();
     }
+
+    /**
+     * 流式遍历选课记录（可按课程或学生过滤），处理完的实体立即从持久化上下文中移除，内存占用与记录数无关
+     */
+    @Transactional(readOnly = true)
+    public void forEachEnrollment(String courseId, String studentId, Consumer<EnrollmentRecord> action) {
+        try (Stream<EnrollmentRecord> records = courseId != null ? repository.streamByCourseId(courseId)
+                : studentId != null ? repository.streamByStudentId(studentId)
+                : repository.streamAll()) {
+            records.forEach(record -> {
+                action.accept(record);
+                entityManager.detach(record);
+            });
+        }
+    }
 }
@@ -0,0 +1,348 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.exception.CourseFullException;
+import com.zjgsu.syt.coursecloud.enrollment.model.EnrollmentRecord;
+import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 抢课模式（flash enrollment）
+ * 选课准入只在内存中的分段座位计数器上判断，通过的选课记录进入写后队列，由后台任务批量落库。
+ * 默认关闭，通过 enrollment.flash.enabled=true 开启。
+ * 座位计数器只在本实例内存中：开启抢课模式时 enrollment-service 必须单实例部署，
+ * 多个实例各自按库中人数初始化计数器，彼此看不到对方已准入的选课，会超卖。
+ */
+@Component
+public class FlashEnrollmentEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashEnrollmentEngine.class);
+
+    private final EnrollmentRepository repository;
+    private final EnrollmentOutbox outbox;
+    private final CourseSeatLedger seats;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, StripedSeatCounter> counters = new ConcurrentHashMap<>();
+    // 已准入但尚未落库的 courseId:studentId，用于拦截重复选课
+    private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+    private final BlockingDeque<EnrollmentRecord> writeBehindQueue = new LinkedBlockingDeque<>();
+    // 各课程已准入、尚未提交落库的记录数（在队列中或在正在落库的批次中）
+    private final Map<String, AtomicInteger> pendingByCourse = new ConcurrentHashMap<>();
+    // 重启对账时加载的各课程已落库人数，首次初始化计数器时取用一次
+    private final Map<String, Long> persistedCounts = new ConcurrentHashMap<>();
+    // 每个落库批次从出队到提交期间持有；初始化计数器时也持有，保证已占座的记录要么在库中、要么计入 pendingByCourse
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${enrollment.flash.enabled:false}")
+    private boolean enabled;
+
+    @Value("${enrollment.flash.stripes:8}")
+    private int stripes;
+
+    @Value("${enrollment.flash.batch-size:200}")
+    private int batchSize;
+
+    public FlashEnrollmentEngine(EnrollmentRepository repository, EnrollmentOutbox outbox, CourseSeatLedger seats,
+                                 PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.outbox = outbox;
+        this.seats = seats;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 在内存中为学生占座，成功后记录进入写后队列
+     *
+     * @param course 课程快照，用于首次初始化该课程的座位计数
+     * @return 尚未落库的选课记录（id 为空）
+     */
+    public EnrollmentRecord admit(String courseId, String studentId, CourseSnapshot course) {
+        String key = key(courseId, studentId);
+        if (!pendingKeys.add(key)) {
+            throw new IllegalStateException("Student is already enrolled in this course");
+        }
+        // 先登记 pending 再查库：落库完成后才移除 pending，因此两步之间不会漏掉重复选课
+        if (repository.existsByCourseIdAndStudentId(courseId, studentId)) {
+            pendingKeys.remove(key);
+            throw new IllegalStateException("Student is already enrolled in this course");
+        }
+
+        if (!counter(courseId, course).tryAcquire()) {
+            pendingKeys.remove(key);
+            throw new CourseFullException(courseId);
+        }
+
+        EnrollmentRecord record = new EnrollmentRecord(courseId, studentId);
+        record.setEnrolledAt(LocalDateTime.now());
+        enqueue(record);
+        return record;
+    }
+
+    /**
+     * 批量准入：先为全部条目登记 pending，再用一次 IN 查询排除已落库的选课，最后逐条占座
+     *
+     * @param candidates 已通过学生/课程校验、且请求内不重复的选课条目
+     * @param courses    条目涉及的课程快照
+     * @return 与 candidates 一一对应的处理结果
+     */
+    public List<BatchEnrollmentResult> admitAll(List<EnrollmentRecord> candidates, Map<String, CourseSnapshot> courses) {
+        BatchEnrollmentResult[] results = new BatchEnrollmentResult[candidates.size()];
+        List<Integer> registered = new ArrayList<>(candidates.size());
+        Set<String> courseIds = new HashSet<>();
+        Set<String> studentIds = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            EnrollmentRecord candidate = candidates.get(i);
+            if (pendingKeys.add(key(candidate.getCourseId(), candidate.getStudentId()))) {
+                registered.add(i);
+                courseIds.add(candidate.getCourseId());
+                studentIds.add(candidate.getStudentId());
+            } else {
+                results[i] = BatchEnrollmentResult.of(candidate.getCourseId(), candidate.getStudentId(),
+                        BatchEnrollmentResult.Outcome.ALREADY_ENROLLED);
+            }
+        }
+
+        Set<String> persisted = registered.isEmpty() ? Set.of() : persistedKeys(courseIds, studentIds);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i : registered) {
+            EnrollmentRecord candidate = candidates.get(i);
+            String courseId = candidate.getCourseId();
+            String key = key(courseId, candidate.getStudentId());
+            BatchEnrollmentResult.Outcome outcome;
+            if (persisted.contains(key)) {
+                pendingKeys.remove(key);
+                outcome = BatchEnrollmentResult.Outcome.ALREADY_ENROLLED;
+            } else if (!counter(courseId, courses.get(courseId)).tryAcquire()) {
+                pendingKeys.remove(key);
+                outcome = BatchEnrollmentResult.Outcome.COURSE_FULL;
+            } else {
+                candidate.setEnrolledAt(now);
+                enqueue(candidate);
+                outcome = BatchEnrollmentResult.Outcome.ACCEPTED;
+            }
+            results[i] = BatchEnrollmentResult.of(courseId, candidate.getStudentId(), outcome);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 一次 IN 查询取回已落库的 courseId:studentId 组合
+     */
+    Set<String> persistedKeys(Collection<String> courseIds, Collection<String> studentIds) {
+        Set<String> keys = new HashSet<>();
+        for (Object[] row : repository.findPairsIn(courseIds, studentIds)) {
+            keys.add(key((String) row[0], (String) row[1]));
+        }
+        return keys;
+    }
+
+    /**
+     * 批量落库写后队列中的选课记录
+     * 逐批加锁，初始化计数器最多等待一个批次提交，而不是等整个队列落库
+     */
+    @Scheduled(fixedDelayString = "${enrollment.flash.flush-interval-ms:50}")
+    public void flush() {
+        List<EnrollmentRecord> batch = new ArrayList<>(batchSize);
+        while (true) {
+            flushLock.lock();
+            try {
+                if (writeBehindQueue.drainTo(batch, batchSize) == 0 || !persist(batch)) {
+                    return;
+                }
+            } finally {
+                flushLock.unlock();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 重启对账：用库中已持久化的选课人数作为座位计数的基线，丢弃旧的内存计数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        counters.clear();
+        persistedCounts.clear();
+        for (Object[] row : repository.countGroupByCourseId()) {
+            persistedCounts.put((String) row[0], (Long) row[1]);
+        }
+        log.info("Flash enrollment reconciled against {} persisted courses", persistedCounts.size());
+    }
+
+    /**
+     * 课程信息变更（如容量调整）后丢弃该课程的计数器，下一次选课时按最新容量重新初始化
+     */
+    public void forget(String courseId) {
+        if (counters.remove(courseId) != null) {
+            log.info("Flash seat counter dropped for changed course: {}", courseId);
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        if (!writeBehindQueue.isEmpty()) {
+            log.info("Flushing {} pending enrollments before shutdown", writeBehindQueue.size());
+            flush();
+        }
+    }
+
+    int pendingCount() {
+        return writeBehindQueue.size();
+    }
+
+    /**
+     * 某门课程已准入但尚未落库的记录数
+     */
+    long pendingCount(String courseId) {
+        AtomicInteger pending = pendingByCourse.get(courseId);
+        return pending != null ? pending.get() : 0;
+    }
+
+    int remainingSeats(String courseId) {
+        StripedSeatCounter counter = counters.get(courseId);
+        return counter != null ? counter.remaining() : -1;
+    }
+
+    /**
+     * 取课程的座位计数器，不存在时初始化
+     * 初始化要查库并可能等待 flushLock，放在 computeIfAbsent 之外，不占用 ConcurrentHashMap 的桶锁，
+     * 不阻塞同一个桶内其他课程的准入；并发初始化时保留先放入的计数器，其余丢弃
+     */
+    private StripedSeatCounter counter(String courseId, CourseSnapshot course) {
+        StripedSeatCounter counter = counters.get(courseId);
+        if (counter != null) {
+            return counter;
+        }
+        StripedSeatCounter seeded = seed(courseId, course);
+        StripedSeatCounter raced = counters.putIfAbsent(courseId, seeded);
+        return raced != null ? raced : seeded;
+    }
+
+    private StripedSeatCounter seed(String courseId, CourseSnapshot course) {
+        long taken;
+        // 与 flush 互斥：持锁期间没有出队未提交的批次，未落库的记录都计在 pendingByCourse 中
+        flushLock.lock();
+        try {
+            Long persisted = persistedCounts.remove(courseId);
+            taken = (persisted != null ? persisted : repository.countByCourseId(courseId)) + pendingCount(courseId);
+        } finally {
+            flushLock.unlock();
+        }
+        int seats = (int) Math.max(0, course.capacity() - taken);
+        log.info("Seeded flash seat counter: courseId={}, capacity={}, taken={}, remaining={}",
+                courseId, course.capacity(), taken, seats);
+        return new StripedSeatCounter(stripes, seats);
+    }
+
+    /**
+     * @return false 如果数据库暂不可用，批次已放回队首等待下次重试
+     */
+    private boolean persist(List<EnrollmentRecord> batch) {
+        try {
+            // 选课记录、outbox 增量与座位台账同一事务提交，关闭抢课模式后同步准入从正确的已占座位数继续
+            Map<String, Integer> perCourse = new TreeMap<>();
+            batch.forEach(record -> perCourse.merge(record.getCourseId(), 1, Integer::sum));
+            perCourse.keySet().forEach(seats::ensure);
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.saveAll(batch);
+                outbox.recordEnrolled(batch);
+                perCourse.forEach(seats::record);
+            });
+            perCourse.forEach(this::settle);
+            batch.forEach(record -> pendingKeys.remove(key(record.getCourseId(), record.getStudentId())));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert of {} enrollments violated a constraint, retrying one by one", batch.size());
+        } catch (DataAccessException e) {
+            log.error("Failed to persist {} enrollments, will retry: {}", batch.size(), e.getMessage());
+            requeue(batch);
+            return false;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            EnrollmentRecord record = batch.get(i);
+            record.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    repository.save(record);
+                    outbox.recordEnrolled(List.of(record));
+                    seats.record(record.getCourseId(), 1);
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Dropping duplicate flash enrollment: studentId={}, courseId={}",
+                        record.getStudentId(), record.getCourseId());
+                StripedSeatCounter counter = counters.get(record.getCourseId());
+                if (counter != null) {
+                    counter.release();
+                }
+            } catch (DataAccessException e) {
+                log.error("Failed to persist enrollments, will retry: {}", e.getMessage());
+                requeue(batch.subList(i, batch.size()));
+                return false;
+            }
+            settle(record.getCourseId(), 1);
+            pendingKeys.remove(key(record.getCourseId(), record.getStudentId()));
+        }
+        return true;
+    }
+
+    private void enqueue(EnrollmentRecord record) {
+        pendingByCourse.computeIfAbsent(record.getCourseId(), id -> new AtomicInteger()).incrementAndGet();
+        writeBehindQueue.add(record);
+    }
+
+    /**
+     * 记录已提交落库（或作为重复选课丢弃），不再计入未落库数
+     */
+    private void settle(String courseId, int count) {
+        AtomicInteger pending = pendingByCourse.get(courseId);
+        if (pending != null) {
+            pending.addAndGet(-count);
+        }
+    }
+
+    private void requeue(List<EnrollmentRecord> records) {
+        for (int i = records.size() - 1; i >= 0; i--) {
+            records.get(i).setId(null);
+            writeBehindQueue.addFirst(records.get(i));
+        }
+    }
+
+    static String key(String courseId, String studentId) {
+        return courseId + ":" + studentId;
+    }
+}
@@ -0,0 +1,183 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.RemoteResponse;
+import com.zjgsu.syt.coursecloud.enrollment.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * outbox 中继
+ * 按批认领 outbox 行，同一课程的增量求和后通过一次批量调用推送给 catalog-service，成功后删除。
+ * 投递语义为至少一次，catalog-service 以 batchId 去重，因此人数计数恰好生效一次。
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final CatalogClient catalogClient;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${enrollment.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${enrollment.outbox.relay.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${enrollment.outbox.relay.stale-after-ms:10000}")
+    private long staleAfterMs;
+
+    // 本实例上次推送失败的批次，下一轮优先重发
+    private volatile String failedBatchId;
+
+    private Counter relayedEvents;
+    private Counter failedBatches;
+    private Timer relayTimer;
+
+    public OutboxRelay(OutboxEventRepository repository, CatalogClient catalogClient,
+                       PlatformTransactionManager transactionManager, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.repository = repository;
+        this.catalogClient = catalogClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry.ifAvailable(this::bindMetrics);
+    }
+
+    private void bindMetrics(MeterRegistry registry) {
+        this.relayedEvents = Counter.builder("enrollment.outbox.relayed")
+                .description("Outbox events delivered to catalog-service")
+                .register(registry);
+        this.failedBatches = Counter.builder("enrollment.outbox.failures")
+                .description("Outbox batches that failed to deliver and will be retried")
+                .register(registry);
+        this.relayTimer = Timer.builder("enrollment.outbox.relay.call")
+                .description("Latency of bulk enrollment delta calls to catalog-service")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (enabled) {
+            relayPending();
+        }
+    }
+
+    /**
+     * 推送 outbox 中全部待处理的增量：先重发失败/超时的批次，再逐批认领新行
+     *
+     * @return 本轮成功推送的 outbox 行数
+     */
+    public int relayPending() {
+        int relayed = 0;
+        String failed = failedBatchId;
+        if (failed != null) {
+            int sent = send(failed);
+            if (sent < 0) {
+                return relayed;
+            }
+            relayed += sent;
+        }
+
+        LocalDateTime staleBefore = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(staleAfterMs));
+        for (String batchId : repository.findStaleBatchIds(staleBefore)) {
+            int sent = send(batchId);
+            if (sent < 0) {
+                return relayed;
+            }
+            relayed += sent;
+        }
+
+        for (String batchId = claim(); batchId != null; batchId = claim()) {
+            int sent = send(batchId);
+            if (sent < 0) {
+                break;
+            }
+            relayed += sent;
+        }
+        return relayed;
+    }
+
+    /**
+     * 认领最早的一批未处理行
+     *
+     * @return 批次 id；没有待处理的行时返回 null
+     */
+    private String claim() {
+        return transactionTemplate.execute(status -> {
+            List<String> ids = repository.findUnclaimedIds(PageRequest.ofSize(batchSize));
+            if (ids.isEmpty()) {
+                return null;
+            }
+            String batchId = UUID.randomUUID().toString();
+            // 与其它实例并发认领时可能只认领到一部分甚至零行，空批次在 send 中直接跳过
+            repository.claim(ids, batchId, LocalDateTime.now());
+            return batchId;
+        });
+    }
+
+    /**
+     * @return 推送成功的 outbox 行数；-1 表示推送失败，批次保持认领状态等待重发
+     */
+    private int send(String batchId) {
+        Map<String, Integer> deltas = new HashMap<>();
+        int events = 0;
+        for (Object[] row : repository.sumDeltasByBatch(batchId)) {
+            int delta = ((Number) row[1]).intValue();
+            if (delta != 0) {
+                deltas.put((String) row[0], delta);
+            }
+            events += ((Number) row[2]).intValue();
+        }
+
+        if (!deltas.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                RemoteResponse<CatalogClient.EnrollmentDeltaResult> response = catalogClient.applyEnrollmentDeltas(
+                        new CatalogClient.EnrollmentDeltaRequest(batchId, deltas));
+                if (response == null || !response.isSuccess()) {
+                    throw new IllegalStateException(response != null ? response.message() : "empty response");
+                }
+            } catch (Exception e) {
+                log.warn("Relaying outbox batch {} ({} courses) failed, will retry: {}", batchId, deltas.size(), e.getMessage());
+                failedBatchId = batchId;
+                if (failedBatches != null) {
+                    failedBatches.increment();
+                }
+                return -1;
+            } finally {
+                if (relayTimer != null) {
+                    relayTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        // 删除失败时批次仍处于认领状态，超时后重发会被 catalog-service 按 batchId 忽略
+        transactionTemplate.executeWithoutResult(status -> repository.deleteByBatchId(batchId));
+        if (batchId.equals(failedBatchId)) {
+            failedBatchId = null;
+        }
+        if (relayedEvents != null) {
+            relayedEvents.increment(events);
+        }
+        log.debug("Relayed outbox batch {}: {} events, {} courses", batchId, events, deltas.size());
+        return events;
+    }
+}
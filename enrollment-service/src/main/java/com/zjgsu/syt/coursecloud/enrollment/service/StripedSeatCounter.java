@@ -0,0 +1,58 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 分段座位计数器
+ * 把剩余座位分散到多个分段上，并发请求随机落到不同分段做 CAS，避免所有线程争抢同一个计数
+ */
+final class StripedSeatCounter {
+
+    // 每个分段占 16 个 int（64 字节），避免相邻分段落在同一条缓存行上产生伪共享
+    private static final int PADDING = 16;
+
+    private final int stripes;
+    private final AtomicIntegerArray cells;
+
+    StripedSeatCounter(int stripes, int seats) {
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, seats / stripes + (i < seats % stripes ? 1 : 0));
+        }
+    }
+
+    /**
+     * 尝试占用一个座位，从随机分段开始，当前分段耗尽时依次向其他分段借位
+     */
+    boolean tryAcquire() {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            int seats = cells.get(index);
+            while (seats > 0) {
+                if (cells.compareAndSet(index, seats, seats - 1)) {
+                    return true;
+                }
+                seats = cells.get(index);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 归还一个座位
+     */
+    void release() {
+        cells.incrementAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING);
+    }
+
+    int remaining() {
+        int total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PADDING);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,79 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 单个学生的课表索引
+ * 每个星期几一棵按开始时间排序的 TreeMap。经 conflictWith 检查后加入的时间段互不重叠，
+ * 因此与新时间段可能冲突的只有开始时间紧挨在它前后的两段，floor/higher 查询均为 O(log n)。
+ * 所有方法以实例为锁，调用方可在 synchronized (timetable) 内组合“检查 + 加入”。
+ */
+final class StudentTimetable {
+
+    record Slot(String courseId, DayOfWeek dayOfWeek, LocalTime start, LocalTime end) {}
+
+    private final Map<DayOfWeek, TreeMap<LocalTime, Slot>> days = new EnumMap<>(DayOfWeek.class);
+    private final Map<String, Slot> byCourse = new HashMap<>();
+
+    /**
+     * @return 与该课程上课时间重叠的已选课程 id；不冲突或课程没有排课时间时返回 null
+     */
+    synchronized String conflictWith(CourseSnapshot course) {
+        if (!scheduled(course) || byCourse.containsKey(course.id())) {
+            return null;
+        }
+        TreeMap<LocalTime, Slot> day = days.get(course.dayOfWeek());
+        if (day == null) {
+            return null;
+        }
+        // 首尾相接（上一节结束即下一节开始）不算冲突
+        Map.Entry<LocalTime, Slot> before = day.floorEntry(course.start());
+        if (before != null && before.getValue().end().isAfter(course.start())) {
+            return before.getValue().courseId();
+        }
+        Map.Entry<LocalTime, Slot> after = day.higherEntry(course.start());
+        if (after != null && after.getKey().isBefore(course.end())) {
+            return after.getValue().courseId();
+        }
+        return null;
+    }
+
+    /**
+     * 加入课表，不做冲突检查（从已落库的选课记录构建时可能有历史冲突，同一开始时间只保留结束较晚的一段）
+     *
+     * @return 课程有排课时间且此前不在课表中时返回 true
+     */
+    synchronized boolean add(CourseSnapshot course) {
+        if (!scheduled(course) || byCourse.containsKey(course.id())) {
+            return false;
+        }
+        Slot slot = new Slot(course.id(), course.dayOfWeek(), course.start(), course.end());
+        days.computeIfAbsent(course.dayOfWeek(), day -> new TreeMap<>())
+                .merge(slot.start(), slot, (existing, added) -> added.end().isAfter(existing.end()) ? added : existing);
+        byCourse.put(course.id(), slot);
+        return true;
+    }
+
+    synchronized void remove(String courseId) {
+        Slot slot = byCourse.remove(courseId);
+        if (slot != null) {
+            TreeMap<LocalTime, Slot> day = days.get(slot.dayOfWeek());
+            day.remove(slot.start(), slot);
+        }
+    }
+
+    synchronized int size() {
+        return byCourse.size();
+    }
+
+    static boolean scheduled(CourseSnapshot course) {
+        return course != null && course.dayOfWeek() != null && course.start() != null && course.end() != null;
+    }
+}
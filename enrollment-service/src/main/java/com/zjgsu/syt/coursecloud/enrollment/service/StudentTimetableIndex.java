@@ -0,0 +1,158 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.exception.ScheduleConflictException;
+import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 学生课表冲突索引
+ * 每个学生一份 StudentTimetable，首次用到时由其选课记录和课程快照缓存构建，之后随选课、递补、退课增量维护，
+ * 选课时的冲突检查不再需要查库或遍历全部已选课程。
+ * 课程排课时间变更时整体失效，按需重建。
+ */
+@Component
+public class StudentTimetableIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentTimetableIndex.class);
+
+    private final EnrollmentRepository repository;
+    private final CourseSnapshotCache courseSnapshotCache;
+    private final Cache<String, StudentTimetable> timetables;
+
+    @Value("${enrollment.lookup.catalog-timeout-ms:3000}")
+    private long catalogLookupTimeoutMs;
+
+    public StudentTimetableIndex(EnrollmentRepository repository, CourseSnapshotCache courseSnapshotCache,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${enrollment.timetable.maximum-size:100000}") long maximumSize,
+                                 @Value("${enrollment.timetable.idle-minutes:30}") long idleMinutes) {
+        this.repository = repository;
+        this.courseSnapshotCache = courseSnapshotCache;
+        this.timetables = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, timetables, "studentTimetable"));
+    }
+
+    /**
+     * 检查上课时间并为学生占用该时间段；调用方事务回滚时自动释放
+     *
+     * @throws ScheduleConflictException 与已选课程时间重叠；不会把调用方事务标记为只回滚，候补递补可以捕获后继续
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = ScheduleConflictException.class)
+    public void reserve(String studentId, CourseSnapshot course) {
+        StudentTimetable timetable = timetables.get(studentId, this::load);
+        boolean added;
+        synchronized (timetable) {
+            String conflict = timetable.conflictWith(course);
+            if (conflict != null) {
+                throw new ScheduleConflictException(course.id(), conflict);
+            }
+            added = timetable.add(course);
+        }
+        if (added) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        timetable.remove(course.id());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 只检查不占用，供在事务之外逐条判定的批量选课使用
+     *
+     * @return 与该课程上课时间重叠的已选课程 id；不冲突或课程没有排课时间时返回 null
+     */
+    public String conflictWith(String studentId, CourseSnapshot course) {
+        if (!StudentTimetable.scheduled(course)) {
+            return null;
+        }
+        return timetables.get(studentId, this::load).conflictWith(course);
+    }
+
+    /**
+     * 退课提交后释放该课程的时间段
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseAfterCommit(String studentId, String courseId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                StudentTimetable timetable = timetables.getIfPresent(studentId);
+                if (timetable != null) {
+                    timetable.remove(courseId);
+                }
+            }
+        });
+    }
+
+    /**
+     * 未经冲突检查的选课（批量选课）提交后同步到已加载的课表；未加载的学生下次用到时从库中构建
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAfterCommit(String studentId, CourseSnapshot course) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                StudentTimetable timetable = timetables.getIfPresent(studentId);
+                if (timetable != null) {
+                    timetable.add(course);
+                }
+            }
+        });
+    }
+
+    /**
+     * 课程排课时间可能已变，丢弃全部课表
+     */
+    public void invalidateAll() {
+        timetables.invalidateAll();
+        log.debug("Student timetables invalidated");
+    }
+
+    private StudentTimetable load(String studentId) {
+        StudentTimetable timetable = new StudentTimetable();
+        List<String> courseIds = repository.findCourseIdsByStudentId(studentId);
+        if (courseIds.isEmpty()) {
+            return timetable;
+        }
+        try {
+            courseSnapshotCache.getAll(courseIds)
+                    .orTimeout(catalogLookupTimeoutMs, TimeUnit.MILLISECONDS)
+                    .join()
+                    .values()
+                    .forEach(timetable::add);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("构建学生课表失败: studentId={}, {}", studentId, cause.toString());
+            throw new RuntimeException("catalog-service unavailable: " + cause.getMessage());
+        }
+        log.debug("Timetable built for {}: {} scheduled courses", studentId, timetable.size());
+        return timetable;
+    }
+}
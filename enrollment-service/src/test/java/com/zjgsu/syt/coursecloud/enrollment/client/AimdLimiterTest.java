@@ -0,0 +1,85 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(800);
+
+    @Test
+    void rejectsCallsBeyondLimit() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, 500, 0.9);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInflight());
+    }
+
+    @Test
+    void fastCallsAtLimitRaiseIt() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 10, 500, 0.9);
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        for (int i = 0; i < 4; i++) {
+            limiter.release(start, start + FAST, false);
+        }
+
+        assertEquals(6, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    void fastCallsWellBelowLimitLeaveItUnchanged() {
+        AimdLimiter limiter = new AimdLimiter(10, 1, 20, 500, 0.9);
+        long start = System.nanoTime();
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(start, start + FAST, false);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void slowWaveShrinksLimitOnce() {
+        AimdLimiter limiter = new AimdLimiter(20, 1, 50, 500, 0.9);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // 同一波在下调之前发出的慢调用只触发一次下调
+        for (int i = 0; i < 10; i++) {
+            limiter.release(start, start + SLOW, false);
+        }
+        assertEquals(18, limiter.getLimit());
+
+        long next = start + SLOW + 1;
+        assertTrue(limiter.tryAcquire());
+        limiter.release(next, next + SLOW, true);
+        assertEquals(16, limiter.getLimit());
+    }
+
+    @Test
+    void neverDropsBelowMinLimit() {
+        AimdLimiter limiter = new AimdLimiter(5, 4, 50, 500, 0.5);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(start, start + SLOW, true);
+            start += 2 * SLOW;
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+}
@@ -0,0 +1,125 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 按 spring.cloud.openfeign.client.config.catalog-service 的 encoder/decoder/defaultRequestHeaders 构建客户端：
+ * catalog-service 的请求和响应走 CBOR，未配置的 user-service 仍为 JSON
+ */
+@SpringBootTest(classes = CborClientSelectionTest.FeignClients.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.cloud.openfeign.client.config.catalog-service.encoder=com.zjgsu.syt.coursecloud.enrollment.client.CborEncoder",
+                "spring.cloud.openfeign.client.config.catalog-service.decoder=com.zjgsu.syt.coursecloud.enrollment.client.CborDecoder",
+                "spring.cloud.openfeign.client.config.catalog-service.default-request-headers.Accept[0]=application/cbor",
+                "spring.cloud.openfeign.client.config.catalog-service.default-request-headers.Accept[1]=application/json;q=0.5"
+        })
+class CborClientSelectionTest {
+
+    private static final ObjectMapper CBOR = new CBORMapper();
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // 请求路径 -> 桩服务收到的 Content-Type / Accept
+    private static final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> accepts = new ConcurrentHashMap<>();
+
+    private static HttpServer stub;
+
+    @Autowired
+    private CatalogClient catalogClient;
+
+    @Autowired
+    private UserClient userClient;
+
+    @DynamicPropertySource
+    static void stubUrl(DynamicPropertyRegistry registry) throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/api/courses/batch", exchange -> {
+            Map<?, ?> request = CBOR.readValue(record(exchange), Map.class);
+            Map<String, Object> body = Map.of("status", "SUCCESS",
+                    "data", Map.of(((List<?>) request.get("ids")).get(0), Map.of("id", "C1", "capacity", 30)));
+            reply(exchange, "application/cbor", CBOR.writeValueAsBytes(body));
+        });
+        stub.createContext("/api/students/batch", exchange -> {
+            Map<?, ?> request = JSON.readValue(record(exchange), Map.class);
+            Map<String, Object> body = Map.of("status", "SUCCESS",
+                    "data", Map.of(((List<?>) request.get("studentIds")).get(0), Map.of("studentId", "S1")));
+            reply(exchange, "application/json", JSON.writeValueAsBytes(body));
+        });
+        stub.start();
+        String url = "http://127.0.0.1:" + stub.getAddress().getPort();
+        registry.add("spring.cloud.openfeign.client.config.user-service.url", () -> url);
+        registry.add("spring.cloud.openfeign.client.config.catalog-service.url", () -> url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void catalogClientUsesCborWhileUserClientStaysJson() {
+        RemoteResponse<Map<String, CourseSnapshot>> courses =
+                catalogClient.getCourses(new CatalogClient.CourseBatchRequest(List.of("C1")));
+        assertTrue(courses.isSuccess());
+        assertEquals(30, courses.data().get("C1").capacity());
+        assertTrue(contentTypes.get("/api/courses/batch").startsWith("application/cbor"));
+        assertTrue(String.join(",", accepts.get("/api/courses/batch")).startsWith("application/cbor"));
+
+        RemoteResponse<Map<String, StudentSummary>> students =
+                userClient.getStudents(new UserClient.StudentBatchRequest(List.of("S1")));
+        assertTrue(students.isSuccess());
+        assertEquals("S1", students.data().get("S1").studentId());
+        assertTrue(contentTypes.get("/api/students/batch").startsWith("application/json"));
+    }
+
+    private static byte[] record(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        contentTypes.put(path, exchange.getRequestHeaders().getFirst("Content-Type"));
+        accepts.put(path, exchange.getRequestHeaders().getOrDefault("Accept", List.of()));
+        return exchange.getRequestBody().readAllBytes();
+    }
+
+    private static void reply(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            FeignAutoConfiguration.class, CircuitBreakerAutoConfiguration.class, TimeLimiterAutoConfiguration.class,
+            Resilience4JAutoConfiguration.class})
+    @EnableFeignClients(clients = {UserClient.class, CatalogClient.class})
+    @Import({UserClientFallback.class, CatalogClientFallback.class})
+    static class FeignClients {
+    }
+}
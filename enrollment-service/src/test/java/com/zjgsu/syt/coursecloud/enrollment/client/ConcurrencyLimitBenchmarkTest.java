@@ -0,0 +1,194 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import feign.hc5.ApacheHttp5Client;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 故障注入：catalog 桩服务 8 个工作线程，运行中把处理时间从 10ms 调到 80ms（容量由 800/s 降到 100/s），
+ * 调用方以固定速率 150/s 持续发起请求，读超时 500ms，按秒统计在超时内成功的请求数。
+ * 不限流时桩服务队列无限增长，排队时间很快超过读超时，成功数跌到 0，且桩服务仍在处理已被放弃的请求；
+ * 有 AIMD 并发上限时超出上限的请求立即被拒绝，在途请求的排队时间受控，成功数维持在容量附近。
+ * 再按 application.yml 的熔断配置套一层熔断器：限流拒绝不计入失败率，熔断不会因限流打开，成功数同样维持在容量附近。
+ */
+@Tag("benchmark")
+class ConcurrencyLimitBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitBenchmarkTest.class);
+
+    private static final int WORKERS = 8;
+    private static final int RATE_PER_SECOND = 150;
+    private static final long HEALTHY_MS = 10;
+    private static final long SLOW_MS = 80;
+    private static final int HEALTHY_SECONDS = 3;
+    private static final int SECONDS = 7;
+    private static final Request.Options OPTIONS =
+            new Request.Options(500, TimeUnit.MILLISECONDS, 500, TimeUnit.MILLISECONDS, true);
+
+    private volatile long latencyMs;
+
+    @Test
+    void limiterHoldsGoodputWhenCatalogSlowsDown() throws Exception {
+        long[] unlimited = run("unlimited", false, null);
+        long[] limited = run("limited", true, null);
+        CircuitBreaker breaker = breaker();
+        long[] guarded = run("limited+breaker", true, breaker);
+
+        // 最后两秒：下游已变慢且排队已经形成
+        double unlimitedTail = tail(unlimited);
+        double limitedTail = tail(limited);
+        double guardedTail = tail(guarded);
+        double slowCapacity = WORKERS * 1_000.0 / SLOW_MS;
+        assertTrue(limitedTail >= slowCapacity * 0.5, "limited goodput " + limitedTail + "/s");
+        assertTrue(unlimitedTail < limitedTail / 2, "unlimited goodput " + unlimitedTail + "/s");
+        assertTrue(guardedTail >= slowCapacity * 0.5, "limited+breaker goodput " + guardedTail + "/s");
+    }
+
+    /**
+     * 与 application.yml 中 resilience4j.circuitbreaker.configs.catalog-service 相同的参数
+     */
+    private static CircuitBreaker breaker() {
+        return CircuitBreaker.of("catalog-service", CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(10)
+                .failureRateThreshold(50)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .waitDurationInOpenState(Duration.ofSeconds(10))
+                .ignoreException(new ConcurrencyLimitRejection())
+                .build());
+    }
+
+    private static double tail(long[] goodput) {
+        return (goodput[SECONDS - 2] + goodput[SECONDS - 1]) / 2.0;
+    }
+
+    /**
+     * @return 每秒在读超时内成功的请求数
+     */
+    private long[] run(String label, boolean limited, CircuitBreaker breaker) throws Exception {
+        latencyMs = HEALTHY_MS;
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1_000);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"status\":\"SUCCESS\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(workers);
+        server.start();
+
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+        manager.setMaxTotal(1_000);
+        manager.setDefaultMaxPerRoute(1_000);
+        CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(manager).build();
+        Client transport = new ApacheHttp5Client(httpClient);
+        ConcurrencyLimitedClient limitedClient = new ConcurrencyLimitedClient(transport,
+                target -> new AimdLimiter(20, 4, 200, 250, 0.9), null);
+        Client client = limited ? limitedClient : transport;
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/courses/C1";
+
+        AtomicLongArray goodput = new AtomicLongArray(SECONDS);
+        AtomicLongArray rejected = new AtomicLongArray(SECONDS);
+        ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+        long begin = System.nanoTime();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE_PER_SECOND;
+        try {
+            // 开环发压：按固定间隔发出请求，不等待前一个请求返回
+            for (long i = 0; ; i++) {
+                long due = begin + i * intervalNanos;
+                long now;
+                while ((now = System.nanoTime()) < due) {
+                    Thread.onSpinWait();
+                }
+                int second = (int) TimeUnit.NANOSECONDS.toSeconds(now - begin);
+                if (second >= SECONDS) {
+                    break;
+                }
+                if (second == HEALTHY_SECONDS) {
+                    latencyMs = SLOW_MS;
+                }
+                callers.submit(() -> call(client, breaker, url, second, goodput, rejected));
+            }
+        } finally {
+            callers.shutdownNow();
+            server.stop(0);
+            workers.shutdownNow();
+            httpClient.close();
+        }
+
+        long[] result = new long[SECONDS];
+        long[] rejectedPerSecond = new long[SECONDS];
+        for (int i = 0; i < SECONDS; i++) {
+            result[i] = goodput.get(i);
+            rejectedPerSecond[i] = rejected.get(i);
+        }
+        log.info("{} goodput/s {} rejected/s {}{}{}", label,
+                Arrays.toString(result), Arrays.toString(rejectedPerSecond),
+                limited ? " final limit " + limitedClient.limiter("catalog-service").getLimit() : "",
+                breaker != null ? " breaker " + breaker.getState() + " not permitted "
+                        + breaker.getMetrics().getNumberOfNotPermittedCalls() : "");
+        return result;
+    }
+
+    private static void call(Client client, CircuitBreaker breaker, String url, int second,
+                             AtomicLongArray goodput, AtomicLongArray rejected) {
+        try {
+            int status = breaker != null
+                    ? breaker.executeCheckedSupplier(() -> execute(client, url))
+                    : execute(client, url);
+            if (status == 200) {
+                goodput.incrementAndGet(second);
+            }
+        } catch (ConcurrencyLimitExceededException | CallNotPermittedException e) {
+            rejected.incrementAndGet(second);
+        } catch (Throwable e) {
+            // 读超时：调用方已放弃，不计入成功
+        }
+    }
+
+    private static int execute(Client client, String url) throws IOException {
+        try (Response response = client.execute(request(url), OPTIONS)) {
+            response.body().asInputStream().readAllBytes();
+            return response.status();
+        }
+    }
+
+    private static Request request(String url) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(CatalogClient.class, "catalog-service", "http://catalog-service"));
+        return Request.create(Request.HttpMethod.GET, url, Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+}
@@ -0,0 +1,80 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseSnapshotCacheTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CatalogClient catalogClient = mock(CatalogClient.class);
+
+    @SuppressWarnings("unchecked")
+    private final CourseSnapshotCache cache = new CourseSnapshotCache(
+            catalogClient, executor, mock(ObjectProvider.class), 100, 60, 300);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void keepsOnlyEnrollmentFieldsAndReloadsAfterInvalidation() {
+        when(catalogClient.getCourse("C1"))
+                .thenReturn(course(60))
+                .thenReturn(course(80));
+
+        CourseSnapshot snapshot = cache.get("C1").join();
+        assertEquals(new CourseSnapshot("C1", 60, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)), snapshot);
+        cache.get("C1").join();
+        verify(catalogClient, times(1)).getCourse("C1");
+
+        cache.invalidate("C1");
+        assertEquals(80, cache.get("C1").join().capacity());
+        verify(catalogClient, times(2)).getCourse("C1");
+    }
+
+    @Test
+    void unknownCourseYieldsNull() {
+        when(catalogClient.getCourse("missing")).thenReturn(RemoteResponse.error("Course not found"));
+
+        assertNull(cache.get("missing").join());
+    }
+
+    @Test
+    void bulkLoadUsesBatchEndpoint() {
+        when(catalogClient.getCourses(any())).thenReturn(RemoteResponse.success(Map.of("C1", snapshot(60))));
+
+        Map<String, CourseSnapshot> snapshots = cache.getAll(List.of("C1", "missing")).join();
+
+        assertEquals(60, snapshots.get("C1").capacity());
+        assertEquals(1, snapshots.size());
+        verify(catalogClient, times(1)).getCourses(any());
+        cache.get("C1").join();
+        verify(catalogClient, never()).getCourse("C1");
+    }
+
+    private static RemoteResponse<CourseSnapshot> course(int capacity) {
+        return RemoteResponse.success(snapshot(capacity));
+    }
+
+    private static CourseSnapshot snapshot(int capacity) {
+        return new CourseSnapshot("C1", capacity, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0));
+    }
+}
@@ -0,0 +1,85 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 按 application.yml 中 spring.cloud.openfeign 的配置构建真实的 Feign 客户端（含熔断），请求一律返回 404 的桩服务：
+ * dismiss404 生效时 404 的错误响应体被正常解码，不会抛 FeignException 进入 fallback
+ */
+@SpringBootTest(classes = FeignClientPropertiesTest.FeignClients.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class FeignClientPropertiesTest {
+
+    private static HttpServer stub;
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private CatalogClient catalogClient;
+
+    @DynamicPropertySource
+    static void stubUrl(DynamicPropertyRegistry registry) throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            byte[] body = "{\"status\":\"ERROR\",\"message\":\"not found\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(404, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.start();
+        String url = "http://127.0.0.1:" + stub.getAddress().getPort();
+        // 直连桩服务，不经过负载均衡
+        registry.add("spring.cloud.openfeign.client.config.user-service.url", () -> url);
+        registry.add("spring.cloud.openfeign.client.config.catalog-service.url", () -> url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void notFoundIsDecodedInsteadOfFallingBack() {
+        RemoteResponse<StudentSummary> student = userClient.getStudent("ghost");
+        assertFalse(student.isSuccess());
+        assertEquals("not found", student.message());
+
+        RemoteResponse<CourseSnapshot> course = catalogClient.getCourse("missing");
+        assertFalse(course.isSuccess());
+        assertEquals("not found", course.message());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            FeignAutoConfiguration.class, CircuitBreakerAutoConfiguration.class, TimeLimiterAutoConfiguration.class,
+            Resilience4JAutoConfiguration.class})
+    @EnableFeignClients(clients = {UserClient.class, CatalogClient.class})
+    @Import({UserClientFallback.class, CatalogClientFallback.class})
+    static class FeignClients {
+    }
+}
@@ -0,0 +1,99 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class PerTargetPoolClientTest {
+
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true);
+
+    private final InstrumentedConnectionManager manager = new InstrumentedConnectionManager();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+        manager.close();
+    }
+
+    @Test
+    void routeLimitFollowsFeignClientName() throws Exception {
+        manager.setDefaultMaxPerRoute(5);
+        Client delegate = (request, options) -> Response.builder()
+                .status(200)
+                .request(request)
+                .headers(Map.of())
+                .build();
+        Map<String, Integer> limits = Map.of("catalog-service", 100, "user-service", 20);
+        Client client = new PerTargetPoolClient(delegate, manager, target -> limits.getOrDefault(target, 5), registry);
+
+        client.execute(request("catalog-service", "http://10.0.0.1:8082/api/courses/C1"), OPTIONS);
+        client.execute(request("user-service", "http://10.0.0.2:8081/api/students/studentId/S1"), OPTIONS);
+        client.execute(request("outbox", "http://10.0.0.3:8082/internal/enrollment-deltas"), OPTIONS);
+
+        assertEquals(100, manager.getMaxPerRoute(PerTargetPoolClient.routeOf("http://10.0.0.1:8082/x")));
+        assertEquals(20, manager.getMaxPerRoute(PerTargetPoolClient.routeOf("http://10.0.0.2:8081/x")));
+        assertEquals(5, manager.getMaxPerRoute(PerTargetPoolClient.routeOf("http://10.0.0.3:8082/x")));
+        assertNotNull(registry.find("enrollment.http.pool.route.leased")
+                .tags("target", "catalog-service", "route", "10.0.0.1:8082").gauge());
+    }
+
+    @Test
+    void sequentialCallsReuseOneConnection() throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"status\":\"SUCCESS\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        manager.bindMetrics(registry);
+        CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(manager).build();
+        Client client = new PerTargetPoolClient(new ApacheHttp5Client(httpClient), manager, target -> 10, registry);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/courses/C1";
+
+        for (int i = 0; i < 20; i++) {
+            try (Response response = client.execute(request("catalog-service", url), OPTIONS)) {
+                assertEquals(200, response.status());
+                response.body().asInputStream().readAllBytes();
+            }
+        }
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(20, registry.get("enrollment.http.pool.lease.wait").timer().count());
+        assertEquals(0.0, registry.get("enrollment.http.pool.route.leased")
+                .tags("target", "catalog-service").gauge().value());
+    }
+
+    private static Request request(String target, String url) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(CatalogClient.class, target, "http://" + target));
+        return Request.create(Request.HttpMethod.GET, url, Map.of(), null, StandardCharsets.UTF_8, template);
+    }
+}
@@ -0,0 +1,112 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zjgsu.syt.coursecloud.enrollment.ThreadAllocations;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Feign 响应解码：对比旧的 Map&lt;String, Object&gt; 树与直接绑定 RemoteResponse 的耗时和每次调用分配的字节数。
+ * 响应体按 catalog-service / user-service 的实际信封构造，包含选课服务用不到的 port、hostname、教师、学生姓名等字段。
+ */
+@Tag("benchmark")
+class RemoteDecodeBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteDecodeBenchmarkTest.class);
+
+    private static final int BATCH_SIZE = 100;
+    private static final int ITERATIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    // 与 Spring Boot 自动配置的 ObjectMapper 一致：未知字段不报错，由类型上的 ignoreUnknown 兜底
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test
+    void typedBatchDecodingAllocatesLessThanMapTree() throws IOException {
+        byte[] course = courseJson("C1").getBytes(StandardCharsets.UTF_8);
+        byte[] students = studentBatchJson().getBytes(StandardCharsets.UTF_8);
+
+        JavaType mapType = mapper.getTypeFactory().constructType(new TypeReference<Map<String, Object>>() {});
+        JavaType courseType = mapper.getTypeFactory().constructType(new TypeReference<RemoteResponse<CourseSnapshot>>() {});
+        JavaType studentsType = mapper.getTypeFactory()
+                .constructType(new TypeReference<RemoteResponse<Map<String, StudentSummary>>>() {});
+
+        RemoteResponse<CourseSnapshot> decoded = mapper.readValue(course, courseType);
+        assertEquals(new CourseSnapshot("C1", 60, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                decoded.data());
+        RemoteResponse<Map<String, StudentSummary>> batch = mapper.readValue(students, studentsType);
+        assertEquals(BATCH_SIZE, batch.data().size());
+
+        log.info(String.format("%-14s %8s %12s %12s", "payload", "bytes", "ns/op", "alloc B/op"));
+        Result courseMap = measure("course map", course, mapType);
+        Result courseTyped = measure("course typed", course, courseType);
+        Result batchMap = measure("batch map", students, mapType);
+        Result batchTyped = measure("batch typed", students, studentsType);
+
+        // 单门课程时两者接近：Map 树不解析星期和时间，这部分原本在解码后的转换里另行完成
+        log.info(String.format("course typed/map alloc ratio: %.2f", courseTyped.allocatedBytes() / courseMap.allocatedBytes()));
+        assertTrue(batchTyped.allocatedBytes() < batchMap.allocatedBytes());
+    }
+
+    private Result measure(String name, byte[] payload, JavaType type) throws IOException {
+        double nanos = Double.MAX_VALUE;
+        double bytes = Double.MAX_VALUE;
+        Object sink = null;
+        // 首轮为预热，取各轮最小值
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = ThreadAllocations.current();
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink = mapper.readValue(payload, type);
+            }
+            nanos = Math.min(nanos, (System.nanoTime() - start) / (double) ITERATIONS);
+            bytes = Math.min(bytes, (ThreadAllocations.current() - allocatedBefore) / (double) ITERATIONS);
+        }
+        assertTrue(sink != null);
+        log.info(String.format("%-14s %8d %12.0f %12.0f", name, payload.length, nanos, bytes));
+        return new Result(nanos, bytes);
+    }
+
+    private static String courseJson(String id) {
+        return """
+                {"port":"8082","hostname":"catalog-1","status":"SUCCESS","data":{
+                "id":"%s","code":"CST101","title":"Introduction to Microservices",
+                "instructorName":"Zhang Wei","instructorEmail":"zhangwei@zjgsu.edu.cn",
+                "dayOfWeek":"MONDAY","start":"09:00","end":"11:00",
+                "capacity":60,"enrolled":42,"expectedAttendance":55}}
+                """.formatted(id);
+    }
+
+    private static String studentBatchJson() {
+        StringBuilder json = new StringBuilder("{\"port\":\"8081\",\"hostname\":\"user-1\",\"status\":\"SUCCESS\",\"data\":{");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String studentId = "S%04d".formatted(i);
+            json.append("\"%s\":{\"id\":\"u-%d\",\"studentId\":\"%s\",\"name\":\"Student %d\",\"major\":\"Computer Science\",\"grade\":2}"
+                    .formatted(studentId, i, studentId, i));
+        }
+        return json.append("},\"count\":").append(BATCH_SIZE).append(",\"missing\":[]}").toString();
+    }
+
+    private record Result(double nanosPerOp, double allocatedBytes) {
+    }
+}
@@ -0,0 +1,215 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.RequestTemplate;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JSON 与 CBOR 两种报文下 CatalogClient 的吞吐：本地桩服务按 Accept 返回预先编码好的响应，
+ * 客户端使用与生产相同的 SpringMvcContract 和默认 HTTP 客户端（keep-alive 复用连接），
+ * JSON 走 Spring 的编解码器，CBOR 走 CborEncoder / CborDecoder。
+ */
+@Tag("benchmark")
+class RemoteTransportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteTransportBenchmarkTest.class);
+
+    private static final int BATCH_SIZE = 100;
+    private static final int THREADS = 4;
+    private static final long WARMUP_MS = 1_000;
+    private static final long MEASURE_MS = 3_000;
+
+    // JSON 侧按 Spring Boot 自动配置的 ObjectMapper 注册 JavaTimeModule
+    private final ObjectMapper jsonMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    private HttpServer server;
+    private String baseUrl;
+    private byte[] courseJson;
+    private byte[] courseCbor;
+    private byte[] batchJson;
+    private byte[] batchCbor;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        Map<String, Object> courses = new LinkedHashMap<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            courses.put("C" + i, course("C" + i));
+        }
+        courseJson = jsonMapper.writeValueAsBytes(envelope(course("C0")));
+        courseCbor = cborMapper.writeValueAsBytes(envelope(course("C0")));
+        Map<String, Object> batch = envelope(courses);
+        batch.put("missing", List.of());
+        batch.put("count", BATCH_SIZE);
+        batchJson = jsonMapper.writeValueAsBytes(batch);
+        batchCbor = cborMapper.writeValueAsBytes(batch);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/courses/batch", exchange -> respond(exchange, batchJson, batchCbor));
+        server.createContext("/api/courses/", exchange -> respond(exchange, courseJson, courseCbor));
+        server.setExecutor(Executors.newFixedThreadPool(THREADS));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Test
+    void cborSendsFewerBytesWithSameResult() throws Exception {
+        Encoder jsonEncoder = new SpringEncoder(() -> converters());
+        Decoder jsonDecoder = new SpringDecoder(() -> converters());
+        CatalogClient json = client(jsonEncoder, jsonDecoder, "application/json");
+        CatalogClient cbor = client(new CborEncoder(), new CborDecoder(), "application/cbor, application/json;q=0.5");
+
+        List<String> ids = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add("C" + i);
+        }
+        CatalogClient.CourseBatchRequest request = new CatalogClient.CourseBatchRequest(ids);
+        assertEquals(json.getCourse("C0"), cbor.getCourse("C0"));
+        assertEquals(json.getCourses(request).data(), cbor.getCourses(request).data());
+        assertEquals(BATCH_SIZE, cbor.getCourses(request).data().size());
+
+        log.info(String.format("%-6s %-8s %10s %10s %10s", "codec", "call", "req B", "resp B", "req/s"));
+        report("json", "single", 0, courseJson.length, run(client -> client.getCourse("C0"), json));
+        report("cbor", "single", 0, courseCbor.length, run(client -> client.getCourse("C0"), cbor));
+        report("json", "batch", requestBytes(jsonEncoder, request), batchJson.length,
+                run(client -> client.getCourses(request), json));
+        report("cbor", "batch", requestBytes(new CborEncoder(), request), batchCbor.length,
+                run(client -> client.getCourses(request), cbor));
+
+        assertTrue(batchCbor.length < batchJson.length);
+        assertTrue(requestBytes(new CborEncoder(), request) < requestBytes(jsonEncoder, request));
+    }
+
+    private CatalogClient client(Encoder encoder, Decoder decoder, String accept) {
+        return Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder(encoder)
+                .decoder(decoder)
+                .requestInterceptor(template -> template.header("Accept", accept))
+                .target(CatalogClient.class, baseUrl);
+    }
+
+    /**
+     * THREADS 个线程持续调用，预热后统计 MEASURE_MS 内完成的请求数
+     */
+    private double run(Consumer<CatalogClient> call, CatalogClient client) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MS);
+            long measureEnd = warmupEnd + TimeUnit.MILLISECONDS.toNanos(MEASURE_MS);
+            List<Future<Long>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    long completed = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < measureEnd) {
+                        call.accept(client);
+                        if (now >= warmupEnd) {
+                            completed++;
+                        }
+                    }
+                    return completed;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> worker : workers) {
+                total += worker.get();
+            }
+            return total * 1_000.0 / MEASURE_MS;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int requestBytes(Encoder encoder, Object body) {
+        RequestTemplate template = new RequestTemplate();
+        encoder.encode(body, body.getClass(), template);
+        return template.body().length;
+    }
+
+    private static void report(String codec, String call, int requestBytes, int responseBytes, double throughput) {
+        log.info(String.format("%-6s %-8s %10d %10d %10.0f", codec, call, requestBytes, responseBytes, throughput));
+    }
+
+    private HttpMessageConverters converters() {
+        return new HttpMessageConverters(false, List.of(new MappingJackson2HttpMessageConverter(jsonMapper)));
+    }
+
+    private static void respond(HttpExchange exchange, byte[] json, byte[] cbor) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        boolean useCbor = accept != null && accept.startsWith(CborEncoder.CBOR);
+        byte[] body = useCbor ? cbor : json;
+        exchange.getResponseHeaders().set("Content-Type", useCbor ? CborEncoder.CBOR : "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static Map<String, Object> envelope(Object data) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("port", "8082");
+        envelope.put("hostname", "catalog-1");
+        envelope.put("status", "SUCCESS");
+        envelope.put("data", data);
+        return envelope;
+    }
+
+    /**
+     * 与 catalog-service 的 CourseResponse 字段一致
+     */
+    private static Map<String, Object> course(String id) {
+        Map<String, Object> course = new LinkedHashMap<>();
+        course.put("id", id);
+        course.put("code", "CST" + id.substring(1));
+        course.put("title", "Introduction to Microservices");
+        course.put("instructorName", "Zhang Wei");
+        course.put("instructorEmail", "zhangwei@zjgsu.edu.cn");
+        course.put("dayOfWeek", "MONDAY");
+        course.put("start", "09:00");
+        course.put("end", "11:00");
+        course.put("capacity", 60);
+        course.put("enrolled", 42);
+        course.put("expectedAttendance", 55);
+        return course;
+    }
+}
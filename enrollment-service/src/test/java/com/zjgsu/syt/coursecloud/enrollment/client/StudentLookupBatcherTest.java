@@ -0,0 +1,109 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentLookupBatcherTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final UserClient userClient = mock(UserClient.class);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private StudentLookupBatcher batcher(long windowMs, int maxBatchSize) {
+        return new StudentLookupBatcher(userClient, executor, mock(ObjectProvider.class), true, windowMs, maxBatchSize);
+    }
+
+    @Test
+    void concurrentLookupsShareOneCall() {
+        when(userClient.getStudents(any())).thenAnswer(invocation -> found(
+                invocation.<UserClient.StudentBatchRequest>getArgument(0).studentIds(), "S404"));
+        StudentLookupBatcher batcher = batcher(50, 100);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(batcher.exists("S" + i));
+        }
+        results.add(batcher.exists("S404"));
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(results.get(i).join());
+        }
+        assertFalse(results.get(20).join());
+        verify(userClient, times(1)).getStudents(any());
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForWindow() {
+        when(userClient.getStudents(any())).thenAnswer(invocation -> found(
+                invocation.<UserClient.StudentBatchRequest>getArgument(0).studentIds()));
+        // 窗口足够长，只有攒满才会发出
+        StudentLookupBatcher batcher = batcher(60_000, 10);
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            results.add(batcher.exists("S" + i));
+        }
+
+        results.forEach(result -> assertTrue(result.join()));
+        verify(userClient, times(3)).getStudents(argThat(request -> request.studentIds().size() == 10));
+    }
+
+    @Test
+    void duplicateIdsAreRequestedOnce() {
+        when(userClient.getStudents(any())).thenAnswer(invocation -> found(
+                invocation.<UserClient.StudentBatchRequest>getArgument(0).studentIds()));
+        StudentLookupBatcher batcher = batcher(50, 100);
+
+        CompletableFuture<Boolean> first = batcher.exists("S001");
+        CompletableFuture<Boolean> second = batcher.exists("S001");
+
+        assertTrue(first.join());
+        assertTrue(second.join());
+        verify(userClient, times(1)).getStudents(argThat(request -> request.studentIds().equals(List.of("S001"))));
+    }
+
+    @Test
+    void failureCompletesEveryWaiter() {
+        when(userClient.getStudents(any())).thenThrow(new IllegalStateException("user-service down"));
+        StudentLookupBatcher batcher = batcher(20, 100);
+
+        CompletableFuture<Boolean> first = batcher.exists("S001");
+        CompletableFuture<Boolean> second = batcher.exists("S002");
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    private static RemoteResponse<Map<String, StudentSummary>> found(List<String> studentIds, String... missing) {
+        Map<String, StudentSummary> data = new HashMap<>();
+        studentIds.stream()
+                .filter(studentId -> !List.of(missing).contains(studentId))
+                .forEach(studentId -> data.put(studentId, new StudentSummary(null, studentId)));
+        return RemoteResponse.success(data);
+    }
+}
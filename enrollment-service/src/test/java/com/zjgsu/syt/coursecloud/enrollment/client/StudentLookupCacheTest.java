@@ -0,0 +1,80 @@
+package com.zjgsu.syt.coursecloud.enrollment.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentLookupCacheTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final UserClient userClient = mock(UserClient.class);
+
+    @SuppressWarnings("unchecked")
+    private final StudentLookupCache cache = new StudentLookupCache(
+            userClient, new StudentLookupBatcher(userClient, executor, mock(ObjectProvider.class), false, 5, 100),
+            executor, mock(ObjectProvider.class), 100, 600, 30);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void cachesExistingAndUnknownStudents() {
+        when(userClient.getStudent("S001")).thenReturn(RemoteResponse.success(null));
+        when(userClient.getStudent("S404")).thenReturn(RemoteResponse.error("Student not found"));
+
+        assertTrue(cache.exists("S001").join());
+        assertTrue(cache.exists("S001").join());
+        assertFalse(cache.exists("S404").join());
+        assertFalse(cache.exists("S404").join());
+
+        verify(userClient, times(1)).getStudent("S001");
+        verify(userClient, times(1)).getStudent("S404");
+    }
+
+    @Test
+    void bulkLookupLoadsOnlyMissesInOneCall() {
+        when(userClient.getStudent("S001")).thenReturn(RemoteResponse.success(null));
+        when(userClient.getStudents(any()))
+                .thenReturn(RemoteResponse.success(Map.of("S002", new StudentSummary(null, "S002"))));
+        cache.exists("S001").join();
+
+        Map<String, Boolean> result = cache.existsAll(List.of("S001", "S002", "S404")).join();
+
+        assertEquals(Map.of("S001", true, "S002", true, "S404", false), result);
+        // 只有未命中的学号进入批量请求
+        verify(userClient, times(1)).getStudents(argThat(request ->
+                Set.copyOf(request.studentIds()).equals(Set.of("S002", "S404"))));
+        assertFalse(cache.exists("S404").join());
+        verify(userClient, never()).getStudent("S404");
+    }
+
+    @Test
+    void doesNotCacheFailures() {
+        when(userClient.getStudent("S001"))
+                .thenThrow(new IllegalStateException("user-service down"))
+                .thenReturn(RemoteResponse.success(null));
+
+        assertTrue(cache.exists("S001").handle((exists, error) -> error != null).join());
+        assertTrue(cache.exists("S001").join());
+    }
+}
@@ -0,0 +1,101 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupBatcher;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.UserClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 全量选课记录流式导出吞吐与内存占用（CSV 写入丢弃输出流）
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // 本用例的 stub 只模拟单个学号查询
+        "enrollment.student-batcher.enabled=false"
+})
+@Import({EnrollmentService.class, FlashEnrollmentEngine.class, StudentLookupCache.class,
+        StudentLookupBatcher.class, CourseSnapshotCache.class, EnrollmentOutbox.class,
+        CourseWaitlist.class, StudentTimetableIndex.class, CourseSeatLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EnrollmentExportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentExportBenchmarkTest.class);
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private CatalogClient catalogClient;
+
+    @Test
+    void exportThroughput() {
+        for (int rows : new int[]{100_000, 1_000_000}) {
+            seed(rows);
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            long baseline = runtime.totalMemory() - runtime.freeMemory();
+
+            AtomicLong count = new AtomicLong();
+            AtomicLong bytes = new AtomicLong();
+            AtomicLong peak = new AtomicLong();
+            long start = System.nanoTime();
+            enrollmentService.forEachEnrollment(null, null, record -> {
+                String line = record.getId() + "," + record.getCourseId() + "," + record.getStudentId()
+                        + "," + record.getEnrolledAt() + "\n";
+                bytes.addAndGet(line.length());
+                if (count.incrementAndGet() % 10_000 == 0) {
+                    peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                }
+            });
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            assertEquals(rows, count.get());
+            log.info(String.format("rows=%d elapsed=%.2fs rows/s=%.0f MB/s=%.1f heapGrowth=%dMB",
+                    rows, seconds, rows / seconds, bytes.get() / seconds / (1024 * 1024),
+                    Math.max(0, peak.get() - baseline) / (1024 * 1024)));
+        }
+    }
+
+    private void seed(int rows) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM enrollments");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{UUID.randomUUID().toString(), "course-" + (i % 1000), "S" + i, now});
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbc.batchUpdate("INSERT INTO enrollments (id, course_id, student_id, enrolled_at) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
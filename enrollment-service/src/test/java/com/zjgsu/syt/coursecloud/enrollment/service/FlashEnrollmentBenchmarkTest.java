@@ -0,0 +1,144 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.RemoteResponse;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupBatcher;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.UserClient;
+import com.zjgsu.syt.coursecloud.enrollment.repository.CourseSeatRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * 单热点课程选课吞吐对比：同步落库 vs 抢课模式（内存准入 + 批量写后）
+ * 两条路径做同样的工作：同一批学生抢同一门课，都按容量准入，超出部分以课程已满拒绝
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // 本用例的 stub 只模拟单个学号查询
+        "enrollment.student-batcher.enabled=false"
+})
+@Import({EnrollmentService.class, FlashEnrollmentEngine.class, StudentLookupCache.class,
+        StudentLookupBatcher.class, CourseSnapshotCache.class, EnrollmentOutbox.class,
+        CourseWaitlist.class, StudentTimetableIndex.class, CourseSeatLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlashEnrollmentBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashEnrollmentBenchmarkTest.class);
+
+    private static final int CAPACITY = 5_000;
+    private static final int STUDENTS = 10_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private FlashEnrollmentEngine flashEngine;
+
+    @Autowired
+    private EnrollmentRepository repository;
+
+    @Autowired
+    private CourseSeatRepository seatRepository;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private CatalogClient catalogClient;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        seatRepository.deleteAll();
+        when(userClient.getStudent(anyString())).thenReturn(RemoteResponse.success(null));
+        when(catalogClient.getCourse(anyString())).thenReturn(
+                RemoteResponse.success(new CourseSnapshot(null, CAPACITY, null, null, null)));
+    }
+
+    @Test
+    void synchronousPath() throws Exception {
+        ReflectionTestUtils.setField(flashEngine, "enabled", false);
+        long accepted = run("synchronous", "course-sync");
+        assertEquals(CAPACITY, accepted);
+        assertEquals(CAPACITY, repository.countByCourseId("course-sync"));
+    }
+
+    @Test
+    void flashPath() throws Exception {
+        ReflectionTestUtils.setField(flashEngine, "enabled", true);
+        ReflectionTestUtils.setField(flashEngine, "stripes", 8);
+        ReflectionTestUtils.setField(flashEngine, "batchSize", 200);
+        long accepted = run("flash", "course-flash");
+        assertEquals(CAPACITY, accepted);
+        assertEquals(CAPACITY, repository.countByCourseId("course-flash"));
+    }
+
+    private long run(String label, String courseId) throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                int i;
+                while ((i = next.getAndIncrement()) < STUDENTS) {
+                    try {
+                        enrollmentService.enroll(courseId, "S" + i);
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // 课程已满
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        // 吞吐统计包含写后队列完全落库的时间
+        while (flashEngine.pendingCount() > 0) {
+            flashEngine.flush();
+        }
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        log.info(String.format("%s: requests=%d accepted=%d elapsed=%.2fs accepted/s=%.0f",
+                label, STUDENTS, accepted.get(), seconds, accepted.get() / seconds));
+        return accepted.get();
+    }
+}
@@ -0,0 +1,161 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.RemoteResponse;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupBatcher;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.UserClient;
+import com.zjgsu.syt.coursecloud.enrollment.model.OutboxEvent;
+import com.zjgsu.syt.coursecloud.enrollment.repository.CourseSeatRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "enrollment.student-batcher.enabled=false",
+        // 由用例手动触发中继
+        "enrollment.outbox.relay.enabled=false"
+})
+@Import({EnrollmentService.class, FlashEnrollmentEngine.class, StudentLookupCache.class,
+        StudentLookupBatcher.class, CourseSnapshotCache.class, EnrollmentOutbox.class,
+        CourseWaitlist.class, StudentTimetableIndex.class, CourseSeatLedger.class, OutboxRelay.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelayTest.class);
+
+    private static final long CATALOG_LATENCY_MS = 2;
+    private static final int EVENTS = 20_000;
+    private static final int COURSES = 20;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseSeatRepository seatRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private CatalogClient catalogClient;
+
+    @BeforeEach
+    void setUp() {
+        enrollmentRepository.deleteAll();
+        seatRepository.deleteAll();
+        outboxRepository.deleteAll();
+        when(userClient.getStudent(anyString())).thenReturn(RemoteResponse.success(null));
+        when(catalogClient.getCourse(anyString())).thenAnswer(invocation -> RemoteResponse.success(
+                new CourseSnapshot(invocation.getArgument(0), 1_000, null, null, null)));
+        when(catalogClient.applyEnrollmentDeltas(any())).thenAnswer(invocation -> {
+            Thread.sleep(CATALOG_LATENCY_MS);
+            return RemoteResponse.success(null);
+        });
+    }
+
+    @Test
+    void aggregatesEnrollmentsIntoOneDeltaCall() {
+        for (int i = 0; i < 200; i++) {
+            enrollmentService.enroll("C1", "S" + i);
+        }
+        enrollmentService.enroll("C2", "S0");
+
+        assertEquals(201, relay.relayPending());
+
+        ArgumentCaptor<CatalogClient.EnrollmentDeltaRequest> request =
+                ArgumentCaptor.forClass(CatalogClient.EnrollmentDeltaRequest.class);
+        verify(catalogClient, times(1)).applyEnrollmentDeltas(request.capture());
+        assertEquals(Map.of("C1", 200, "C2", 1), request.getValue().deltas());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void failedBatchIsResentWithSameBatchId() {
+        when(catalogClient.applyEnrollmentDeltas(any()))
+                .thenThrow(new IllegalStateException("catalog-service down"))
+                .thenReturn(RemoteResponse.success(null));
+        enrollmentService.enroll("C1", "S1");
+
+        assertEquals(0, relay.relayPending());
+        assertEquals(1, outboxRepository.count());
+        assertEquals(1, relay.relayPending());
+        assertEquals(0, outboxRepository.count());
+
+        // 两次调用使用同一个幂等键，catalog-service 只会计数一次
+        ArgumentCaptor<CatalogClient.EnrollmentDeltaRequest> requests =
+                ArgumentCaptor.forClass(CatalogClient.EnrollmentDeltaRequest.class);
+        verify(catalogClient, times(2)).applyEnrollmentDeltas(requests.capture());
+        assertEquals(requests.getAllValues().get(0).batchId(), requests.getAllValues().get(1).batchId());
+    }
+
+    /**
+     * outbox 积压 20000 行（每行 +1，分布在 20 门课程）：逐行推送所需调用次数 vs 批量汇总推送
+     * （catalog stub 每次调用固定延迟 2ms）
+     */
+    @Test
+    @Tag("benchmark")
+    void relayThroughput() {
+        List<OutboxEvent> backlog = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            backlog.add(new OutboxEvent("course-" + (i % COURSES), 1));
+        }
+        outboxRepository.saveAll(backlog);
+        clearInvocations(catalogClient);
+
+        long start = System.nanoTime();
+        int relayed = relay.relayPending();
+        long elapsedNanos = System.nanoTime() - start;
+
+        ArgumentCaptor<CatalogClient.EnrollmentDeltaRequest> requests =
+                ArgumentCaptor.forClass(CatalogClient.EnrollmentDeltaRequest.class);
+        verify(catalogClient, atLeastOnce()).applyEnrollmentDeltas(requests.capture());
+        int calls = requests.getAllValues().size();
+        int total = requests.getAllValues().stream()
+                .flatMap(request -> request.deltas().values().stream())
+                .mapToInt(Integer::intValue)
+                .sum();
+
+        log.info(String.format("outbox relay: %d events in %dms (%.0f events/s), %d catalog calls (per-event would be %d, >= %dms)",
+                relayed, elapsedNanos / 1_000_000, relayed * 1e9 / elapsedNanos, calls, EVENTS, EVENTS * CATALOG_LATENCY_MS));
+        assertEquals(EVENTS, relayed);
+        assertEquals(EVENTS, total);
+        assertEquals(0, outboxRepository.count());
+    }
+}
@@ -0,0 +1,104 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.RemoteResponse;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupBatcher;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.UserClient;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * 选课延迟：两个远程校验串行 vs 并发（stub 客户端分别固定延迟 40ms / 60ms，缓存均未命中）
+ * 串行基线同样经过 StudentLookupCache / CourseSnapshotCache 及其远程查询线程池，只是等前一个查询返回后再发下一个
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // 本用例的 stub 只模拟单个学号查询
+        "enrollment.student-batcher.enabled=false"
+})
+@Import({EnrollmentService.class, FlashEnrollmentEngine.class, StudentLookupCache.class,
+        StudentLookupBatcher.class, CourseSnapshotCache.class, EnrollmentOutbox.class,
+        CourseWaitlist.class, StudentTimetableIndex.class, CourseSeatLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ParallelLookupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelLookupBenchmarkTest.class);
+
+    private static final long USER_LATENCY_MS = 40;
+    private static final long CATALOG_LATENCY_MS = 60;
+    private static final int SAMPLES = 200;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentLookupCache studentLookupCache;
+
+    @Autowired
+    private CourseSnapshotCache courseSnapshotCache;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private CatalogClient catalogClient;
+
+    @Test
+    void enrollmentLatencyTracksSlowerLookup() {
+        when(userClient.getStudent(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(USER_LATENCY_MS);
+            return RemoteResponse.success(null);
+        });
+        when(catalogClient.getCourse(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(CATALOG_LATENCY_MS);
+            return RemoteResponse.success(new CourseSnapshot(invocation.getArgument(0), 100, null, null, null));
+        });
+
+        long[] sequential = new long[SAMPLES];
+        long[] parallel = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // 学号和课程每次都不同（串行基线另用一组），确保所有查询都未命中本地缓存
+            long start = System.nanoTime();
+            studentLookupCache.exists("SEQ" + i).join();
+            courseSnapshotCache.get("CSEQ" + i).join();
+            sequential[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            enrollmentService.enroll("C" + i, "S" + i);
+            parallel[i] = System.nanoTime() - start;
+        }
+
+        report("sequential", sequential);
+        report("parallel", parallel);
+        assertTrue(percentile(parallel, 50) < percentile(sequential, 50));
+    }
+
+    private static void report(String label, long[] samples) {
+        log.info(String.format("%s: p50=%.1fms p99=%.1fms",
+                label, percentile(samples, 50) / 1_000_000.0, percentile(samples, 99) / 1_000_000.0));
+    }
+
+    private static long percentile(long[] samples, int percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
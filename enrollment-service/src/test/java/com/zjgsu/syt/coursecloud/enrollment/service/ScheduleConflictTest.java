@@ -0,0 +1,196 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.RemoteResponse;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupBatcher;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentSummary;
+import com.zjgsu.syt.coursecloud.enrollment.client.UserClient;
+import com.zjgsu.syt.coursecloud.enrollment.exception.CourseFullException;
+import com.zjgsu.syt.coursecloud.enrollment.exception.ScheduleConflictException;
+import com.zjgsu.syt.coursecloud.enrollment.model.EnrollmentRecord;
+import com.zjgsu.syt.coursecloud.enrollment.repository.CourseSeatRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.OutboxEventRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "enrollment.student-batcher.enabled=false"
+})
+@Import({EnrollmentService.class, FlashEnrollmentEngine.class, StudentLookupCache.class,
+        StudentLookupBatcher.class, CourseSnapshotCache.class, EnrollmentOutbox.class,
+        CourseWaitlist.class, StudentTimetableIndex.class, CourseSeatLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduleConflictTest {
+
+    // courseId -> 星期, 开始, 结束, 容量
+    private static final Map<String, String[]> SCHEDULE = Map.of(
+            "MON-09", new String[]{"MONDAY", "09:00", "11:00", "10"},
+            "MON-10", new String[]{"MONDAY", "10:00", "12:00", "10"},
+            "MON-11", new String[]{"MONDAY", "11:00", "13:00", "10"},
+            "MON-08", new String[]{"MONDAY", "08:00", "09:30", "10"},
+            "TUE-10", new String[]{"TUESDAY", "10:00", "12:00", "10"},
+            "MON-1030-FULL", new String[]{"MONDAY", "10:30", "11:30", "1"}
+    );
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentTimetableIndex timetableIndex;
+
+    @Autowired
+    private CourseWaitlist waitlist;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseSeatRepository seatRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private CatalogClient catalogClient;
+
+    @BeforeEach
+    void setUp() {
+        enrollmentRepository.deleteAll();
+        seatRepository.deleteAll();
+        waitlistRepository.deleteAll();
+        outboxRepository.deleteAll();
+        timetableIndex.invalidateAll();
+        when(userClient.getStudent(anyString())).thenReturn(RemoteResponse.success(null));
+        when(userClient.getStudents(any())).thenAnswer(invocation -> {
+            UserClient.StudentBatchRequest request = invocation.getArgument(0);
+            Map<String, StudentSummary> found = new HashMap<>();
+            request.studentIds().forEach(studentId -> found.put(studentId, new StudentSummary(null, studentId)));
+            return RemoteResponse.success(found);
+        });
+        when(catalogClient.getCourse(anyString())).thenAnswer(invocation ->
+                RemoteResponse.success(course(invocation.getArgument(0))));
+        when(catalogClient.getCourses(any())).thenAnswer(invocation -> {
+            CatalogClient.CourseBatchRequest request = invocation.getArgument(0);
+            Map<String, CourseSnapshot> found = new HashMap<>();
+            request.ids().forEach(courseId -> found.put(courseId, course(courseId)));
+            return RemoteResponse.success(found);
+        });
+    }
+
+    private static CourseSnapshot course(String courseId) {
+        String[] slot = SCHEDULE.get(courseId);
+        return new CourseSnapshot(courseId, Integer.parseInt(slot[3]),
+                DayOfWeek.valueOf(slot[0]), LocalTime.parse(slot[1]), LocalTime.parse(slot[2]));
+    }
+
+    @Test
+    void overlappingCourseIsRejectedAndAdjacentOneAccepted() {
+        enrollmentService.enroll("MON-09", "S1");
+
+        ScheduleConflictException conflict = assertThrows(ScheduleConflictException.class,
+                () -> enrollmentService.enroll("MON-10", "S1"));
+        assertEquals("MON-09", conflict.getConflictingCourseId());
+        assertThrows(ScheduleConflictException.class, () -> enrollmentService.enroll("MON-08", "S1"));
+
+        // 首尾相接、不同星期都不算冲突
+        enrollmentService.enroll("MON-11", "S1");
+        enrollmentService.enroll("TUE-10", "S1");
+        // 其他学生不受影响
+        enrollmentService.enroll("MON-10", "S2");
+
+        assertEquals(3, enrollmentRepository.findByStudentId("S1").size());
+    }
+
+    @Test
+    void batchReportsConflictsPerItem() {
+        enrollmentService.enroll("MON-09", "S1");
+
+        List<BatchEnrollmentResult> results = enrollmentService.enrollBatch(List.of(
+                new EnrollmentRecord("MON-10", "S1"),
+                new EnrollmentRecord("TUE-10", "S1"),
+                new EnrollmentRecord("MON-10", "S2"),
+                new EnrollmentRecord("MON-1030-FULL", "S2")));
+
+        assertEquals(BatchEnrollmentResult.Outcome.SCHEDULE_CONFLICT, results.get(0).outcome());
+        assertEquals(BatchEnrollmentResult.Outcome.ENROLLED, results.get(1).outcome());
+        assertEquals(BatchEnrollmentResult.Outcome.ENROLLED, results.get(2).outcome());
+        // 与本批次中排在前面的条目重叠
+        assertEquals(BatchEnrollmentResult.Outcome.SCHEDULE_CONFLICT, results.get(3).outcome());
+        assertFalse(enrollmentRepository.existsByCourseIdAndStudentId("MON-10", "S1"));
+    }
+
+    @Test
+    void dropFreesTheSlot() {
+        EnrollmentRecord record = enrollmentService.enroll("MON-09", "S1");
+        assertThrows(ScheduleConflictException.class, () -> enrollmentService.enroll("MON-10", "S1"));
+
+        enrollmentService.drop(record.getId());
+
+        enrollmentService.enroll("MON-10", "S1");
+        assertTrue(enrollmentRepository.existsByCourseIdAndStudentId("MON-10", "S1"));
+    }
+
+    @Test
+    void rolledBackEnrollmentDoesNotHoldTheSlot() {
+        enrollmentService.enroll("MON-1030-FULL", "S1");
+        // 课程已满，事务回滚后 S2 的 10:30 时间段不应被占用
+        assertThrows(CourseFullException.class, () -> enrollmentService.enroll("MON-1030-FULL", "S2"));
+
+        enrollmentService.enroll("MON-10", "S2");
+        assertTrue(enrollmentRepository.existsByCourseIdAndStudentId("MON-10", "S2"));
+    }
+
+    @Test
+    void indexIsRebuiltFromEnrollmentRecords() {
+        enrollmentRepository.save(new EnrollmentRecord("MON-09", "S1"));
+        timetableIndex.invalidateAll();
+
+        assertThrows(ScheduleConflictException.class, () -> enrollmentService.enroll("MON-10", "S1"));
+        assertFalse(enrollmentRepository.existsByCourseIdAndStudentId("MON-10", "S1"));
+    }
+
+    @Test
+    void waitlistedStudentWithClashingCourseIsSkipped() {
+        EnrollmentRecord seat = enrollmentService.enroll("MON-1030-FULL", "S1");
+        enrollmentService.joinWaitlist("MON-1030-FULL", "S2");
+        enrollmentService.joinWaitlist("MON-1030-FULL", "S3");
+        // S2 候补期间选了时间冲突的课程
+        enrollmentService.enroll("MON-10", "S2");
+
+        assertEquals("S3", enrollmentService.drop(seat.getId()));
+        assertFalse(enrollmentRepository.existsByCourseIdAndStudentId("MON-1030-FULL", "S2"));
+        assertTrue(enrollmentRepository.existsByCourseIdAndStudentId("MON-1030-FULL", "S3"));
+    }
+}
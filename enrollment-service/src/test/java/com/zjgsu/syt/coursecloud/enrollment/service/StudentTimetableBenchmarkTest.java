@@ -0,0 +1,118 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 选课冲突检查：学生已选 5~50 门课时，对比课表索引（按星期几的 TreeMap）与逐门取出课程快照线性比较的耗时。
+ * 线性方式对应没有索引时的做法：按选课记录取出全部已选课程，再逐一比较上课时间。
+ */
+@Tag("benchmark")
+class StudentTimetableBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentTimetableBenchmarkTest.class);
+
+    private static final int[] COURSE_COUNTS = {5, 10, 20, 50};
+    private static final int STUDENTS = 1_000;
+    private static final int PROBES = 200_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void indexedLookupMatchesLinearScan() {
+        Random random = new Random(42);
+        log.info(String.format("%8s %14s %14s", "courses", "linear ns/op", "index ns/op"));
+        for (int courses : COURSE_COUNTS) {
+            List<Student> students = new ArrayList<>(STUDENTS);
+            for (int i = 0; i < STUDENTS; i++) {
+                students.add(new Student(random, courses));
+            }
+            CourseSnapshot[] probes = new CourseSnapshot[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                probes[i] = randomCourse(random, "P" + i);
+            }
+
+            long linearConflicts = 0;
+            long indexConflicts = 0;
+            double linearNanos = Double.MAX_VALUE;
+            double indexNanos = Double.MAX_VALUE;
+            // 首轮为预热，取各轮最小值
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                linearConflicts = 0;
+                for (int i = 0; i < PROBES; i++) {
+                    if (students.get(i % STUDENTS).linearConflict(probes[i]) != null) {
+                        linearConflicts++;
+                    }
+                }
+                linearNanos = Math.min(linearNanos, (System.nanoTime() - start) / (double) PROBES);
+
+                start = System.nanoTime();
+                indexConflicts = 0;
+                for (int i = 0; i < PROBES; i++) {
+                    if (students.get(i % STUDENTS).timetable.conflictWith(probes[i]) != null) {
+                        indexConflicts++;
+                    }
+                }
+                indexNanos = Math.min(indexNanos, (System.nanoTime() - start) / (double) PROBES);
+            }
+
+            log.info(String.format("%8d %14.1f %14.1f", courses, linearNanos, indexNanos));
+            assertEquals(linearConflicts, indexConflicts);
+        }
+    }
+
+    private static CourseSnapshot randomCourse(Random random, String id) {
+        DayOfWeek day = DayOfWeek.of(1 + random.nextInt(7));
+        LocalTime start = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(52));
+        return new CourseSnapshot(id, 100, day, start, start.plusMinutes(45 + 15L * random.nextInt(6)));
+    }
+
+    private static final class Student {
+
+        final Map<String, CourseSnapshot> snapshots = new HashMap<>();
+        final List<String> enrolledCourseIds = new ArrayList<>();
+        final StudentTimetable timetable = new StudentTimetable();
+
+        Student(Random random, int courses) {
+            // 每周 7 天 × 08:00-22:00 共 98 个整点时段，随机取互不重叠的若干个
+            List<Integer> hours = new ArrayList<>();
+            for (int i = 0; i < 98; i++) {
+                hours.add(i);
+            }
+            Collections.shuffle(hours, random);
+            for (int i = 0; i < courses; i++) {
+                int hour = hours.get(i);
+                LocalTime start = LocalTime.of(8 + hour % 14, 0);
+                CourseSnapshot course = new CourseSnapshot("C" + i, 100, DayOfWeek.of(1 + hour / 14), start, start.plusMinutes(50));
+                snapshots.put(course.id(), course);
+                enrolledCourseIds.add(course.id());
+                timetable.add(course);
+            }
+        }
+
+        String linearConflict(CourseSnapshot course) {
+            for (String courseId : enrolledCourseIds) {
+                CourseSnapshot enrolled = snapshots.get(courseId);
+                if (enrolled.dayOfWeek() == course.dayOfWeek()
+                        && enrolled.start().isBefore(course.end()) && course.start().isBefore(enrolled.end())) {
+                    return enrolled.id();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 选课高峰模拟：200 个座位、2000 名学生在开放后 60 秒内涌入，10 分钟内约 20% 的已选学生退课。
+ * 对比“已满即失败、每 5 秒重试”与“已满转入候补、退课时自动递补”两种方式产生的选课请求量。
+ */
+@Tag("benchmark")
+class WaitlistSimulationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistSimulationBenchmarkTest.class);
+
+    private static final int CAPACITY = 200;
+    private static final int STUDENTS = 2_000;
+    private static final int RUSH_SECONDS = 60;
+    private static final int WAVE_SECONDS = 600;
+    private static final double DROP_RATE = 0.2;
+    private static final int RETRY_INTERVAL_SECONDS = 5;
+    // 候补学生每分钟查看一次排位（只读查询，不计入选课请求）
+    private static final int POLL_INTERVAL_SECONDS = 60;
+
+    @Test
+    void waitlistRemovesRetryStorm() {
+        Wave wave = new Wave(new Random(42));
+        Result retry = wave.simulate(false);
+        Result waitlist = wave.simulate(true);
+
+        log.info(String.format("retry loop: enroll requests=%d seated=%d", retry.requests, retry.seated));
+        log.info(String.format("waitlist:   enroll requests=%d position reads=%d seated=%d promoted=%d",
+                waitlist.requests, waitlist.positionReads, waitlist.seated, waitlist.promoted.size()));
+        log.info(String.format("enroll requests removed: %.1f%%", 100.0 * (retry.requests - waitlist.requests) / retry.requests));
+
+        assertEquals(STUDENTS, waitlist.requests);
+        assertTrue(waitlist.requests * 10L < retry.requests);
+        // 递补严格按到达顺序
+        for (int i = 1; i < waitlist.promoted.size(); i++) {
+            assertTrue(wave.arrival[waitlist.promoted.get(i - 1)] <= wave.arrival[waitlist.promoted.get(i)]);
+        }
+    }
+
+    private static final class Wave {
+
+        final int[] arrival = new int[STUDENTS];
+        // 选上后多少秒退课，-1 表示不退课
+        final int[] dropAfter = new int[STUDENTS];
+
+        Wave(Random random) {
+            for (int i = 0; i < STUDENTS; i++) {
+                arrival[i] = random.nextInt(RUSH_SECONDS);
+                dropAfter[i] = random.nextDouble() < DROP_RATE ? 1 + random.nextInt(WAVE_SECONDS) : -1;
+            }
+        }
+
+        Result simulate(boolean useWaitlist) {
+            Result result = new Result();
+            List<List<Integer>> attempts = buckets();
+            List<List<Integer>> drops = buckets();
+            for (int i = 0; i < STUDENTS; i++) {
+                attempts.get(arrival[i]).add(i);
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            boolean[] waiting = new boolean[STUDENTS];
+            int taken = 0;
+
+            for (int t = 0; t < WAVE_SECONDS; t++) {
+                taken -= drops.get(t).size();
+                result.seated -= drops.get(t).size();
+                if (useWaitlist) {
+                    Integer head;
+                    while (taken < CAPACITY && (head = queue.poll()) != null) {
+                        waiting[head] = false;
+                        result.promoted.add(head);
+                        taken++;
+                        seat(head, t, result, drops);
+                    }
+                    for (int student = 0; student < STUDENTS; student++) {
+                        if (waiting[student] && (t - arrival[student]) % POLL_INTERVAL_SECONDS == 0) {
+                            result.positionReads++;
+                        }
+                    }
+                }
+
+                for (int student : attempts.get(t)) {
+                    result.requests++;
+                    if (taken < CAPACITY && queue.isEmpty()) {
+                        taken++;
+                        seat(student, t, result, drops);
+                    } else if (useWaitlist) {
+                        queue.add(student);
+                        waiting[student] = true;
+                    } else if (t + RETRY_INTERVAL_SECONDS < WAVE_SECONDS) {
+                        attempts.get(t + RETRY_INTERVAL_SECONDS).add(student);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void seat(int student, int t, Result result, List<List<Integer>> drops) {
+            result.seated++;
+            if (dropAfter[student] > 0 && t + dropAfter[student] < WAVE_SECONDS) {
+                drops.get(t + dropAfter[student]).add(student);
+            }
+        }
+
+        private static List<List<Integer>> buckets() {
+            List<List<Integer>> buckets = new ArrayList<>(WAVE_SECONDS);
+            for (int t = 0; t < WAVE_SECONDS; t++) {
+                buckets.add(new ArrayList<>());
+            }
+            return buckets;
+        }
+    }
+
+    private static final class Result {
+        long requests;
+        long positionReads;
+        int seated;
+        final List<Integer> promoted = new ArrayList<>();
+    }
+}
@@ -0,0 +1,222 @@
+package com.zjgsu.syt.coursecloud.enrollment.service;
+
+import com.zjgsu.syt.coursecloud.enrollment.client.CatalogClient;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshot;
+import com.zjgsu.syt.coursecloud.enrollment.client.CourseSnapshotCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.RemoteResponse;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupBatcher;
+import com.zjgsu.syt.coursecloud.enrollment.client.StudentLookupCache;
+import com.zjgsu.syt.coursecloud.enrollment.client.UserClient;
+import com.zjgsu.syt.coursecloud.enrollment.exception.CourseFullException;
+import com.zjgsu.syt.coursecloud.enrollment.model.EnrollmentRecord;
+import com.zjgsu.syt.coursecloud.enrollment.model.OutboxEvent;
+import com.zjgsu.syt.coursecloud.enrollment.repository.CourseSeatRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.EnrollmentRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.OutboxEventRepository;
+import com.zjgsu.syt.coursecloud.enrollment.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "enrollment.student-batcher.enabled=false"
+})
+@Import({EnrollmentService.class, FlashEnrollmentEngine.class, StudentLookupCache.class,
+        StudentLookupBatcher.class, CourseSnapshotCache.class, EnrollmentOutbox.class,
+        CourseWaitlist.class, StudentTimetableIndex.class, CourseSeatLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WaitlistTest {
+
+    private final AtomicInteger capacity = new AtomicInteger(2);
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseWaitlist waitlist;
+
+    @Autowired
+    private CourseSnapshotCache courseSnapshotCache;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseSeatRepository seatRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private CatalogClient catalogClient;
+
+    @BeforeEach
+    void setUp() {
+        enrollmentRepository.deleteAll();
+        seatRepository.deleteAll();
+        waitlistRepository.deleteAll();
+        outboxRepository.deleteAll();
+        when(userClient.getStudent(anyString())).thenReturn(RemoteResponse.success(null));
+        when(catalogClient.getCourse(anyString())).thenAnswer(invocation -> RemoteResponse.success(
+                new CourseSnapshot(invocation.getArgument(0), capacity.get(), null, null, null)));
+    }
+
+    @Test
+    void fullCourseQueuesInRequestOrderAndDropPromotesHead() {
+        EnrollmentRecord first = enrollmentService.enroll("C1", "S1");
+        enrollmentService.enroll("C1", "S2");
+        assertThrows(CourseFullException.class, () -> enrollmentService.enroll("C1", "S3"));
+
+        assertEquals(1, enrollmentService.joinWaitlist("C1", "S3"));
+        assertEquals(2, enrollmentService.joinWaitlist("C1", "S4"));
+        assertEquals(2, enrollmentService.joinWaitlist("C1", "S4"));
+
+        assertEquals("S3", enrollmentService.drop(first.getId()));
+        assertEquals(0, enrollmentService.waitlistPosition("C1", "S3"));
+        assertEquals(1, enrollmentService.waitlistPosition("C1", "S4"));
+        assertTrue(enrollmentRepository.existsByCourseIdAndStudentId("C1", "S3"));
+        assertEquals(2, enrollmentRepository.countByCourseId("C1"));
+        // 退课 -1 与递补 +1 都进入 outbox，catalog-service 最终人数不变
+        assertEquals(2, outboxRepository.findAll().stream().mapToInt(OutboxEvent::getDelta).sum());
+    }
+
+    @Test
+    void newRequestsCannotJumpTheQueue() {
+        capacity.set(1);
+        enrollmentService.enroll("C2", "S1");
+        enrollmentService.joinWaitlist("C2", "S2");
+
+        capacity.set(3);
+        courseSnapshotCache.invalidate("C2");
+        // 扩容后但递补之前到达的新请求仍排在候补学生之后
+        assertThrows(CourseFullException.class, () -> enrollmentService.enroll("C2", "S3"));
+        // 加入候补后立即递补空出的座位，先到的 S2 与 S3 都选上
+        assertEquals(0, enrollmentService.joinWaitlist("C2", "S3"));
+
+        assertEquals(0, enrollmentService.promoteWaitlist("C2"));
+        assertTrue(enrollmentRepository.existsByCourseIdAndStudentId("C2", "S2"));
+        assertEquals(3, enrollmentRepository.countByCourseId("C2"));
+        assertEquals(0, waitlist.size("C2"));
+    }
+
+    @Test
+    void joiningFillsSeatsLeftEmptyWhileStudentsQueue() {
+        capacity.set(1);
+        enrollmentService.enroll("C6", "S1");
+        enrollmentService.joinWaitlist("C6", "S2");
+
+        // 扩容通知丢失：座位已空出但没有触发递补
+        capacity.set(2);
+        courseSnapshotCache.invalidate("C6");
+        assertThrows(CourseFullException.class, () -> enrollmentService.enroll("C6", "S3"));
+
+        assertEquals(1, enrollmentService.joinWaitlist("C6", "S3"));
+        assertTrue(enrollmentRepository.existsByCourseIdAndStudentId("C6", "S2"));
+        assertEquals(2, enrollmentRepository.countByCourseId("C6"));
+    }
+
+    @Test
+    void queueIsSharedAcrossInstances() {
+        capacity.set(1);
+        enrollmentService.enroll("C3", "S1");
+        enrollmentService.joinWaitlist("C3", "S2");
+        // 另一个实例上的候补名单，排队号和队首都来自同一张表
+        CourseWaitlist replica = new CourseWaitlist(waitlistRepository);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertEquals(2, transaction.execute(status -> replica.join("C3", "S3")));
+        assertEquals(2, enrollmentService.waitlistPosition("C3", "S3"));
+        assertEquals(3, enrollmentService.joinWaitlist("C3", "S4"));
+
+        assertEquals("S2", transaction.execute(status -> replica.pollNext("C3")));
+        assertEquals(0, enrollmentService.waitlistPosition("C3", "S2"));
+        assertEquals(1, enrollmentService.waitlistPosition("C3", "S3"));
+    }
+
+    @Test
+    void concurrentEnrollmentsNeverExceedCapacity() throws Exception {
+        capacity.set(20);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String studentId = "R" + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    enrollmentService.enroll("C4", studentId);
+                    admitted.incrementAndGet();
+                } catch (CourseFullException e) {
+                    full.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(20, admitted.get());
+        assertEquals(80, full.get());
+        assertEquals(20, enrollmentRepository.countByCourseId("C4"));
+    }
+
+    @Test
+    void rolledBackWaitlistChangesLeaveQueueUntouched() {
+        capacity.set(1);
+        enrollmentService.enroll("C5", "S1");
+        enrollmentService.joinWaitlist("C5", "S2");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            waitlist.join("C5", "S3");
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> {
+            assertEquals("S2", waitlist.pollNext("C5"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, enrollmentService.waitlistPosition("C5", "S2"));
+        assertEquals(0, enrollmentService.waitlistPosition("C5", "S3"));
+        assertEquals(1, waitlistRepository.count());
+        // 回滚的加入没有留下记录，下一位学生排在 S2 之后
+        assertEquals(2, enrollmentService.joinWaitlist("C5", "S4"));
+    }
+}
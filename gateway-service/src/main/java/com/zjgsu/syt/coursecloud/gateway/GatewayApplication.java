@@ -1,8 +1,11 @@
 package com.zjgsu.syt.coursecloud.gateway;
 
+import com.zjgsu.syt.coursecloud.gateway.filter.JwtAuthenticationFilter;
+import com.zjgsu.syt.coursecloud.gateway.util.PathClassifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 @EnableDiscoveryClient
@@ -10,4 +13,12 @@ public class GatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(GatewayApplication.class, args);
     }
+
+    /**
+     * 白名单编译成的路径分类器，启动时构建一次
+     */
+    @Bean
+    public PathClassifier pathClassifier() {
+        return new PathClassifier(JwtAuthenticationFilter.WHITE_LIST);
+    }
 }
@@ -1,7 +1,8 @@
 package com.zjgsu.syt.coursecloud.gateway.filter;
 
-import com.zjgsu.syt.coursecloud.gateway.util.JwtUtil;
-import io.jsonwebtoken.Claims;
+import com.zjgsu.syt.coursecloud.gateway.util.AuthenticatedUser;
+import com.zjgsu.syt.coursecloud.gateway.util.PathClassifier;
+import com.zjgsu.syt.coursecloud.gateway.util.VerifiedTokenCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +16,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -28,10 +28,13 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private PathClassifier pathClassifier;
 
     // 白名单：无需认证的路径
-    private static final List<String> WHITE_LIST = Arrays.asList(
+    public static final List<String> WHITE_LIST = List.of(
             "/api/auth/login",
             "/api/auth/register",
             "/actuator/health"
@@ -45,7 +48,7 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         log.debug("Processing request: {} {}", request.getMethod(), path);
 
         // 1. 白名单路径直接放行
-        if (isWhiteListPath(path)) {
+        if (pathClassifier.isPublic(path)) {
             log.debug("White list path, skipping authentication: {}", path);
             return chain.filter(exchange);
         }
@@ -60,45 +63,30 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         // 3. 提取 Token（去掉 "Bearer " 前缀）
         String token = authHeader.substring(7);
 
-        // 4. 验证 Token 有效性
-        if (!jwtUtil.validateToken(token)) {
+        // 4. 验证 Token 并获取用户信息（同一 Token 只在首次出现时做签名校验）
+        AuthenticatedUser user = tokenCache.verify(token);
+        if (user == null) {
             log.warn("Invalid or expired JWT token for path: {}", path);
             return unauthorized(exchange.getResponse(), "Invalid or expired token");
         }
 
-        // 5. 解析 Token 获取用户信息
-        Claims claims;
-        try {
-            claims = jwtUtil.parseToken(token);
-        } catch (Exception e) {
-            log.error("Failed to parse JWT token: {}", e.getMessage());
-            return unauthorized(exchange.getResponse(), "Failed to parse token");
-        }
-
-        String userId = claims.getSubject();
-        String username = claims.get("username", String.class);
-        String role = claims.get("role", String.class);
+        String userId = user.userId();
+        String username = user.username();
+        String role = user.role();
 
         log.info("Authenticated user: {} (ID: {}, Role: {}) for path: {}", username, userId, role, path);
 
-        // 6. 将用户信息添加到请求头
+        // 5. 将用户信息添加到请求头
         ServerHttpRequest mutatedRequest = request.mutate()
                 .header("X-User-Id", userId)
                 .header("X-Username", username)
                 .header("X-User-Role", role)
                 .build();
 
-        // 7. 转发请求到下游服务
+        // 6. 转发请求到下游服务
         return chain.filter(exchange.mutate().request(mutatedRequest).build());
     }
 
-    /**
-     * 检查路径是否在白名单中
-     */
-    private boolean isWhiteListPath(String path) {
-        return WHITE_LIST.stream().anyMatch(path::startsWith);
-    }
-
     /**
      * 返回 401 未授权响应
      */
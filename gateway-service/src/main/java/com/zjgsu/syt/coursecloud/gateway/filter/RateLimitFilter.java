@@ -0,0 +1,141 @@
+package com.zjgsu.syt.coursecloud.gateway.filter;
+
+import com.zjgsu.syt.coursecloud.gateway.util.PathClassifier;
+import com.zjgsu.syt.coursecloud.gateway.util.TokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流过滤器
+ * 按 (路由, 用户) 做令牌桶限流，用户取 JwtAuthenticationFilter 写入的 X-User-Id；
+ * 白名单路径没有可信的用户 ID，按客户端 IP 限流。超限返回 429 并带 Retry-After。
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final boolean enabled;
+    private final PathClassifier pathClassifier;
+    private final TokenBucketLimiter limiter;
+    private final Counter rejected;
+    private final Disposable evictionTask;
+
+    /**
+     * @param routeLimits 按路由覆盖的限流参数，格式 routeId:rate:burst
+     */
+    public RateLimitFilter(PathClassifier pathClassifier,
+                           MeterRegistry meterRegistry,
+                           @Value("${gateway.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${gateway.rate-limit.rate:20}") double rate,
+                           @Value("${gateway.rate-limit.burst:40}") int burst,
+                           @Value("${gateway.rate-limit.routes:}") String[] routeLimits,
+                           @Value("${gateway.rate-limit.idle-seconds:600}") long idleSeconds) {
+        this.enabled = enabled;
+        this.pathClassifier = pathClassifier;
+        this.limiter = new TokenBucketLimiter(new TokenBucketLimiter.Limit(rate, burst), parseRouteLimits(routeLimits));
+        this.rejected = Counter.builder("gateway.ratelimit.rejected")
+                .description("Requests rejected by the gateway rate limiter")
+                .register(meterRegistry);
+        meterRegistry.gauge("gateway.ratelimit.buckets", limiter, TokenBucketLimiter::size);
+
+        long idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+        this.evictionTask = Schedulers.parallel().schedulePeriodically(() -> {
+            int evicted = limiter.evictIdle(idleNanos);
+            if (evicted > 0) {
+                log.debug("Evicted {} idle rate limit buckets", evicted);
+            }
+        }, idleSeconds, idleSeconds, TimeUnit.SECONDS);
+    }
+
+    private static Map<String, TokenBucketLimiter.Limit> parseRouteLimits(String[] entries) {
+        Map<String, TokenBucketLimiter.Limit> limits = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid rate limit entry (expected routeId:rate:burst): " + entry);
+            }
+            limits.put(parts[0], new TokenBucketLimiter.Limit(Double.parseDouble(parts[1]), Integer.parseInt(parts[2])));
+        }
+        return limits;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+
+        long waitNanos = limiter.tryAcquire(routeId, clientKey(request));
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+
+        rejected.increment();
+        log.debug("Rate limit exceeded on route {} for path {}", routeId, request.getPath().value());
+        return tooManyRequests(exchange.getResponse(), waitNanos);
+    }
+
+    private String clientKey(ServerHttpRequest request) {
+        if (!pathClassifier.isPublic(request.getPath().value())) {
+            String userId = request.getHeaders().getFirst("X-User-Id");
+            if (userId != null) {
+                return userId;
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown";
+    }
+
+    /**
+     * 返回 429，Retry-After 向上取整到秒
+     */
+    private Mono<Void> tooManyRequests(ServerHttpResponse response, long waitNanos) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    @PreDestroy
+    void stopEviction() {
+        evictionTask.dispose();
+    }
+
+    /**
+     * 在认证过滤器（-100）之后执行，拿到已验证的 X-User-Id；早于请求合并，被拒请求不占用合并槽位
+     */
+    @Override
+    public int getOrder() {
+        return -90;
+    }
+}
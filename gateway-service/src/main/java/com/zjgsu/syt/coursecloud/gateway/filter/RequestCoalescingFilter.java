@@ -0,0 +1,268 @@
+package com.zjgsu.syt.coursecloud.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热点 GET 请求合并过滤器
+ * 同一路由上完全相同的 GET 请求同时在途时，只向下游转发第一个（leader），
+ * 其余请求（follower）等待 leader 的响应并复用同一份状态码、响应头和响应体。
+ * 可选的微 TTL 缓存让紧随其后的相同请求在极短时间内直接命中。
+ *
+ * 只对配置的路径前缀生效，这些接口的响应必须与调用者身份无关。
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescingFilter.class);
+
+    private final boolean enabled;
+    private final String[] pathPrefixes;
+    private final int maxBodyBytes;
+    private final Duration maxWait;
+    private final Cache<String, CachedResponse> recentResponses;
+    private final ConcurrentHashMap<String, Mono<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter forwarded;
+    private final Counter coalesced;
+    private final Counter cacheHits;
+    private final Counter fallbacks;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry,
+                                   @Value("${gateway.coalescing.enabled:true}") boolean enabled,
+                                   @Value("${gateway.coalescing.path-prefixes:/api/courses/,/api/enrollments/course/}") String[] pathPrefixes,
+                                   @Value("${gateway.coalescing.max-body-bytes:1048576}") int maxBodyBytes,
+                                   @Value("${gateway.coalescing.max-wait-ms:5000}") long maxWaitMs,
+                                   @Value("${gateway.coalescing.micro-ttl-ms:0}") long microTtlMs) {
+        this.enabled = enabled;
+        this.pathPrefixes = pathPrefixes;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.recentResponses = microTtlMs > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(10_000)
+                        .expireAfterWrite(Duration.ofMillis(microTtlMs))
+                        .build()
+                : null;
+
+        // 合并率 = (coalesced + cache_hit) / 全部计数
+        this.forwarded = outcomeCounter(meterRegistry, "forwarded");
+        this.coalesced = outcomeCounter(meterRegistry, "coalesced");
+        this.cacheHits = outcomeCounter(meterRegistry, "cache_hit");
+        this.fallbacks = outcomeCounter(meterRegistry, "fallback");
+        meterRegistry.gauge("gateway.coalescing.inflight", inFlight, ConcurrentHashMap::size);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("Coalescable GET requests by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || request.getMethod() != HttpMethod.GET || !isCoalescable(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        String key = requestKey(exchange);
+
+        // 1. 微 TTL 缓存命中直接返回
+        if (recentResponses != null) {
+            CachedResponse cached = recentResponses.getIfPresent(key);
+            if (cached != null) {
+                cacheHits.increment();
+                return write(exchange.getResponse(), cached);
+            }
+        }
+
+        // 2. 已有相同请求在途：等待 leader 的响应
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Mono<CachedResponse> shared = sink.asMono();
+        Mono<CachedResponse> leader = inFlight.putIfAbsent(key, shared);
+        if (leader != null) {
+            return leader.timeout(maxWait)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .onErrorReturn(Optional.empty())
+                    .flatMap(response -> {
+                        if (response.isPresent()) {
+                            coalesced.increment();
+                            return write(exchange.getResponse(), response.get());
+                        }
+                        // leader 失败、超时或响应不可共享时，自行转发
+                        fallbacks.increment();
+                        return chain.filter(exchange);
+                    });
+        }
+
+        // 3. 成为 leader：转发并捕获响应
+        forwarded.increment();
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), maxBodyBytes,
+                () -> release(key, shared, sink, null));
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doOnSuccess(v -> release(key, shared, sink, capturing.snapshot()))
+                .doOnError(e -> release(key, shared, sink, null))
+                .doOnCancel(() -> release(key, shared, sink, null));
+    }
+
+    private boolean isCoalescable(String path) {
+        for (String prefix : pathPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String requestKey(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        String query = request.getURI().getRawQuery();
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return (route != null ? route.getId() : "") + ' ' + request.getPath().value()
+                + (query != null ? '?' + query : "") + ' ' + (accept != null ? accept : "");
+    }
+
+    /**
+     * 结束一次 leader 转发，唤醒所有 follower；只有第一次调用生效
+     */
+    private void release(String key, Mono<CachedResponse> shared, Sinks.One<CachedResponse> sink,
+                         CachedResponse response) {
+        if (!inFlight.remove(key, shared)) {
+            return;
+        }
+        if (response == null) {
+            sink.tryEmitEmpty();
+            return;
+        }
+        if (recentResponses != null && response.status().value() == HttpStatus.OK.value()) {
+            recentResponses.put(key, response);
+        }
+        sink.tryEmitValue(response);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, CachedResponse cached) {
+        response.setStatusCode(cached.status());
+        HttpHeaders headers = response.getHeaders();
+        cached.headers().forEach((name, values) -> {
+            if (!headers.containsKey(name)) {
+                headers.put(name, values);
+            }
+        });
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * 可共享的响应快照
+     */
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * 在写出响应的同时复制响应体；超过上限或流式写出时放弃捕获并提前释放 follower
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final int maxBytes;
+        private final Runnable onAbandon;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private volatile boolean abandoned;
+
+        CapturingResponse(ServerHttpResponse delegate, int maxBytes, Runnable onAbandon) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+            this.onAbandon = onAbandon;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::capture));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            abandon();
+            return super.writeAndFlushWith(body);
+        }
+
+        private void capture(DataBuffer buffer) {
+            if (abandoned) {
+                return;
+            }
+            int length = buffer.readableByteCount();
+            if (body.size() + length > maxBytes) {
+                log.debug("Response exceeds {} bytes, not shared", maxBytes);
+                abandon();
+                return;
+            }
+            byte[] bytes = new byte[length];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, length);
+            body.write(bytes, 0, length);
+        }
+
+        private void abandon() {
+            abandoned = true;
+            body.reset();
+            onAbandon.run();
+        }
+
+        CachedResponse snapshot() {
+            if (abandoned) {
+                return null;
+            }
+            HttpHeaders headers = new HttpHeaders();
+            getDelegate().getHeaders().forEach((name, values) -> {
+                // 跨域头与 follower 自身的 Origin 相关，传输相关头由写出时重新计算
+                if (!name.regionMatches(true, 0, "Access-Control-", 0, 15)
+                        && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                        && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    headers.put(name, values);
+                }
+            });
+            HttpStatusCode status = getDelegate().getStatusCode();
+            return new CachedResponse(status != null ? status : HttpStatus.OK, headers, body.toByteArray());
+        }
+    }
+
+    /**
+     * 在认证过滤器之后、NettyWriteResponseFilter（-1）写出响应之前执行
+     */
+    @Override
+    public int getOrder() {
+        return -50;
+    }
+}
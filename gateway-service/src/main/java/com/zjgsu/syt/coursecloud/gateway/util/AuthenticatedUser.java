@@ -0,0 +1,9 @@
+package com.zjgsu.syt.coursecloud.gateway.util;
+
+/**
+ * 已验证 Token 中提取的用户信息
+ *
+ * @param expiresAt Token 过期时间（毫秒时间戳）
+ */
+public record AuthenticatedUser(String userId, String username, String role, long expiresAt) {
+}
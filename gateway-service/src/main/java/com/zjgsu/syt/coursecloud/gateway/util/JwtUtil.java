@@ -1,14 +1,17 @@
 package com.zjgsu.syt.coursecloud.gateway.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
 
 /**
@@ -26,6 +29,18 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // 密钥和解析器只构建一次，JwtParser 不可变且线程安全
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     /**
      * 生成 JWT Token
      *
@@ -44,7 +59,7 @@ public class JwtUtil {
                 .claim("role", role)  // 添加自定义声明：角色
                 .setIssuedAt(now)  // 设置签发时间
                 .setExpiration(expiryDate)  // 设置过期时间
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS512)  // 使用 HS512 算法签名
+                .signWith(signingKey, SignatureAlgorithm.HS512)  // 使用 HS512 算法签名
                 .compact();
 
         log.debug("Generated JWT token for user: {} (ID: {}), expires at: {}", username, userId, expiryDate);
@@ -59,11 +74,7 @@ public class JwtUtil {
      */
     public Claims parseToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = parser.parseClaimsJws(token).getBody();
 
             log.debug("Successfully parsed JWT token for user: {} (ID: {})",
                     claims.get("username"), claims.getSubject());
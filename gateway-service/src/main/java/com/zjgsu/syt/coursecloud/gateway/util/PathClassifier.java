@@ -0,0 +1,81 @@
+package com.zjgsu.syt.coursecloud.gateway.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 请求路径分类器
+ * 启动时把白名单前缀编译成一棵字符前缀树，请求期只沿树走一遍路径字符回答“是否公开”，不产生任何对象分配。
+ * 路由匹配仍由网关自身完成，过滤器从 GATEWAY_ROUTE_ATTR 读取命中的路由。
+ */
+public final class PathClassifier {
+
+    private final Node root = new Node();
+
+    public PathClassifier(Collection<String> publicPrefixes) {
+        for (String prefix : publicPrefixes) {
+            insert(prefix).publicPrefix = true;
+        }
+    }
+
+    /**
+     * 路径是否以某个白名单前缀开头（无需认证）
+     */
+    public boolean isPublic(String path) {
+        Node node = root;
+        for (int i = 0; ; i++) {
+            if (node.publicPrefix) {
+                return true;
+            }
+            if (i == path.length()) {
+                return false;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+        }
+    }
+
+    private Node insert(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * 前缀树节点，子节点按字符有序存放，查找用二分
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean publicPrefix;
+
+        Node child(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            if (idx >= 0) {
+                return children[idx];
+            }
+            int insertAt = -idx - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            Node created = new Node();
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = created;
+            keys = newKeys;
+            children = newChildren;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.zjgsu.syt.coursecloud.gateway.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内存令牌桶限流器（GCRA 实现）
+ * 每个 (路由, 客户端) 一个桶，桶内只有一个 AtomicLong：理论到达时间 TAT。
+ * 每次请求把 TAT 推后一个发放间隔，超过突发容量则拒绝，全程 CAS 无锁。
+ */
+public class TokenBucketLimiter {
+
+    /**
+     * 单条路由的限流参数
+     *
+     * @param ratePerSecond 稳定速率（每秒请求数）
+     * @param burst         允许的突发请求数
+     */
+    public record Limit(double ratePerSecond, int burst) {
+
+        public Limit {
+            if (ratePerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Invalid rate limit: rate=" + ratePerSecond + ", burst=" + burst);
+            }
+        }
+    }
+
+    private final Limit defaultLimit;
+    private final Map<String, RouteBuckets> routes = new ConcurrentHashMap<>();
+    private final Map<String, Limit> routeLimits;
+
+    public TokenBucketLimiter(Limit defaultLimit, Map<String, Limit> routeLimits) {
+        this.defaultLimit = defaultLimit;
+        this.routeLimits = Map.copyOf(routeLimits);
+    }
+
+    /**
+     * 尝试放行一个请求
+     *
+     * @return 0 表示放行；否则为需要等待的纳秒数
+     */
+    public long tryAcquire(String routeId, String clientKey) {
+        return tryAcquire(routeId, clientKey, System.nanoTime());
+    }
+
+    long tryAcquire(String routeId, String clientKey, long now) {
+        RouteBuckets buckets = routes.computeIfAbsent(routeId,
+                id -> new RouteBuckets(routeLimits.getOrDefault(id, defaultLimit)));
+        AtomicLong tat = buckets.clients.computeIfAbsent(clientKey, key -> new AtomicLong(now));
+        long interval = buckets.intervalNanos;
+        long tolerance = buckets.toleranceNanos;
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + interval;
+            long excess = next - now - tolerance;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 移除已空闲的桶：TAT 早于 now - idleNanos 的桶已完全回满，与新建桶等价
+     *
+     * @return 移除的桶数
+     */
+    public int evictIdle(long idleNanos) {
+        return evictIdle(idleNanos, System.nanoTime());
+    }
+
+    int evictIdle(long idleNanos, long now) {
+        int before = size();
+        long threshold = now - idleNanos;
+        routes.values().forEach(buckets -> buckets.clients.values().removeIf(tat -> tat.get() < threshold));
+        return before - size();
+    }
+
+    /**
+     * 当前桶数量
+     */
+    public int size() {
+        int total = 0;
+        for (RouteBuckets buckets : routes.values()) {
+            total += buckets.clients.size();
+        }
+        return total;
+    }
+
+    private static final class RouteBuckets {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final ConcurrentHashMap<String, AtomicLong> clients = new ConcurrentHashMap<>();
+
+        RouteBuckets(Limit limit) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.ratePerSecond()));
+            this.toleranceNanos = intervalNanos * limit.burst();
+        }
+    }
+}
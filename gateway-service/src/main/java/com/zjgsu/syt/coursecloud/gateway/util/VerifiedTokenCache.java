@@ -0,0 +1,94 @@
+package com.zjgsu.syt.coursecloud.gateway.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证 JWT 缓存
+ * 以 Token 的 SHA-256 摘要为 key 缓存解析出的用户信息，条目在 Token 自身的 exp 时刻过期；
+ * 同一个 Token 只在首次出现时做一次 HS512 签名校验。
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${jwt.cache.maximum-size:100000}") long maximumSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    /**
+     * 验证 Token 并返回用户信息
+     *
+     * @return 用户信息，Token 无效或已过期时返回 null（无效结果不缓存）
+     */
+    public AuthenticatedUser verify(String token) {
+        AuthenticatedUser user = cache.get(digest(token), key -> load(token));
+        // 缓存条目按 exp 过期，这里再防御一次时钟边界
+        if (user != null && user.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return user;
+    }
+
+    private AuthenticatedUser load(String token) {
+        try {
+            Claims claims = jwtUtil.parseToken(token);
+            return new AuthenticatedUser(
+                    claims.getSubject(),
+                    claims.get("username", String.class),
+                    claims.get("role", String.class),
+                    claims.getExpiration().getTime());
+        } catch (Exception e) {
+            log.debug("JWT token rejected: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, AuthenticatedUser> {
+
+        @Override
+        public long expireAfterCreate(String key, AuthenticatedUser user, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, user.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AuthenticatedUser user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, AuthenticatedUser user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.zjgsu.syt.coursecloud.gateway.benchmark;
+
+import com.zjgsu.syt.coursecloud.gateway.util.AuthenticatedUser;
+import com.zjgsu.syt.coursecloud.gateway.util.JwtUtil;
+import com.zjgsu.syt.coursecloud.gateway.util.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 校验微基准
+ * 对比：每次请求 validate + parse 两次验签（原实现）、缓存未命中（冷 Token）、缓存命中（热 Token）。
+ * 运行：在 IDE 中执行 main 方法，或 mvn test-compile 后以 test classpath 启动。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET =
+            "coursecloud-jwt-secret-key-for-authentication-minimum-256-bits-required-for-hs512-algorithm";
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache warmCache;
+    private VerifiedTokenCache coldCache;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        token = jwtUtil.generateToken("u-1001", "alice", "STUDENT");
+        warmCache = new VerifiedTokenCache(jwtUtil, 100_000);
+        warmCache.verify(token);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetColdCache() {
+        coldCache = new VerifiedTokenCache(jwtUtil, 100_000);
+    }
+
+    @Benchmark
+    public Claims validateThenParse() {
+        if (!jwtUtil.validateToken(token)) {
+            throw new IllegalStateException("token rejected");
+        }
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser coldToken() {
+        return coldCache.verify(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser warmToken() {
+        return warmCache.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
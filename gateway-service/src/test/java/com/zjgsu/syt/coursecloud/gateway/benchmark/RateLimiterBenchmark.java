@@ -0,0 +1,68 @@
+package com.zjgsu.syt.coursecloud.gateway.benchmark;
+
+import com.zjgsu.syt.coursecloud.gateway.util.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流器单次判定开销
+ * hotUser：所有线程争用同一个桶（最坏 CAS 竞争）；spreadUsers：请求分散到 N 个用户的桶。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    private int users;
+
+    private TokenBucketLimiter limiter;
+    private String[] userIds;
+
+    @Setup
+    public void setUp() {
+        limiter = new TokenBucketLimiter(new TokenBucketLimiter.Limit(20, 40), Map.of());
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user-" + i;
+            limiter.tryAcquire("enrollment-service", userIds[i]);
+        }
+    }
+
+    @Benchmark
+    public long hotUser() {
+        return limiter.tryAcquire("enrollment-service", userIds[0]);
+    }
+
+    @Benchmark
+    public long spreadUsers() {
+        return limiter.tryAcquire("enrollment-service", userIds[ThreadLocalRandom.current().nextInt(users)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.zjgsu.syt.coursecloud.gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(
+            new TokenBucketLimiter.Limit(10, 5),
+            Map.of("enrollment-service", new TokenBucketLimiter.Limit(1, 2)));
+
+    @Test
+    void admitsBurstThenRejects() {
+        long now = 0;
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("catalog-service", "u1", now)).isZero();
+        }
+        long wait = limiter.tryAcquire("catalog-service", "u1", now);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        long now = 0;
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("catalog-service", "u1", now);
+        }
+        assertThat(limiter.tryAcquire("catalog-service", "u1", now)).isPositive();
+        assertThat(limiter.tryAcquire("catalog-service", "u1", now + SECOND / 10)).isZero();
+        assertThat(limiter.tryAcquire("catalog-service", "u1", now + SECOND / 10)).isPositive();
+    }
+
+    @Test
+    void appliesPerRouteLimitsAndIsolatesUsers() {
+        long now = 0;
+        assertThat(limiter.tryAcquire("enrollment-service", "u1", now)).isZero();
+        assertThat(limiter.tryAcquire("enrollment-service", "u1", now)).isZero();
+        assertThat(limiter.tryAcquire("enrollment-service", "u1", now)).isBetween(1L, SECOND);
+
+        assertThat(limiter.tryAcquire("enrollment-service", "u2", now)).isZero();
+        assertThat(limiter.tryAcquire("catalog-service", "u1", now)).isZero();
+    }
+
+    @Test
+    void evictsOnlyIdleBuckets() {
+        limiter.tryAcquire("catalog-service", "idle", 0);
+        limiter.tryAcquire("catalog-service", "busy", 10 * SECOND);
+
+        int evicted = limiter.evictIdle(5 * SECOND, 10 * SECOND);
+
+        assertThat(evicted).isEqualTo(1);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    /**
+     * 一个用户多线程压满时，其他低速用户的请求仍全部放行
+     */
+    @Test
+    void greedyClientDoesNotStarveOthers() throws Exception {
+        TokenBucketLimiter shared = new TokenBucketLimiter(new TokenBucketLimiter.Limit(50, 10), Map.of());
+        int greedyThreads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(greedyThreads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong greedyAdmitted = new AtomicLong();
+        AtomicLong greedyAttempts = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(greedyThreads);
+        for (int t = 0; t < greedyThreads; t++) {
+            pool.submit(() -> {
+                started.countDown();
+                while (running.get()) {
+                    greedyAttempts.incrementAndGet();
+                    if (shared.tryAcquire("enrollment-service", "greedy") == 0) {
+                        greedyAdmitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        started.await();
+
+        AtomicInteger politeAdmitted = new AtomicInteger();
+        int politeRequests = 20;
+        for (int i = 0; i < politeRequests; i++) {
+            for (int user = 0; user < 5; user++) {
+                if (shared.tryAcquire("enrollment-service", "polite-" + user) == 0) {
+                    politeAdmitted.incrementAndGet();
+                }
+            }
+            Thread.sleep(50);
+        }
+        running.set(false);
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(politeAdmitted.get()).isEqualTo(politeRequests * 5);
+        // 约 1 秒内：突发 10 + 50/s，留出调度抖动的余量
+        assertThat(greedyAdmitted.get()).isLessThan(200).isLessThan(greedyAttempts.get());
+    }
+}
@@ -0,0 +1,64 @@
+package com.zjgsu.syt.coursecloud.user.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+
+/**
+ * 当前实例的端口、主机名和 IP，用于响应中标识处理请求的实例（负载均衡验证）
+ * 启动时解析一次：主机名优先取环境变量 HOSTNAME（Docker 容器中最可靠），否则回退到 InetAddress，
+ * 回退可能触发 DNS 查询，因此不放在请求线程上做。
+ */
+@Component
+public class InstanceIdentity {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceIdentity.class);
+
+    private final String port;
+    private final String hostname;
+    private final String address;
+
+    public InstanceIdentity(@Value("${server.port}") String port) {
+        this.port = port;
+        this.hostname = resolveHostname(port);
+        this.address = resolveAddress();
+        log.info("Instance identity resolved: hostname={}, address={}, port={}", hostname, address, port);
+    }
+
+    public String port() {
+        return port;
+    }
+
+    public String hostname() {
+        return hostname;
+    }
+
+    public String address() {
+        return address;
+    }
+
+    private static String resolveHostname(String port) {
+        String hostname = System.getenv("HOSTNAME");
+        if (hostname != null && !hostname.isEmpty()) {
+            return hostname;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            log.warn("Failed to get hostname: {}", e.getMessage());
+        }
+        return "unknown-" + port;
+    }
+
+    private static String resolveAddress() {
+        try {
+            return InetAddress.getLocalHost().getHostAddress();
+        } catch (Exception e) {
+            log.warn("Failed to get IP address: {}", e.getMessage());
+            return "unknown";
+        }
+    }
+}
@@ -4,18 +4,20 @@ import com.zjgsu.syt.coursecloud.user.model.Student;
 import com.zjgsu.syt.coursecloud.user.model.Teacher;
 import com.zjgsu.syt.coursecloud.user.service.UserService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.net.InetAddress;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,40 +26,22 @@ public class UserController {
 
     private static final Logger log = LoggerFactory.getLogger(UserController.class);
 
-    private final UserService userService;
+    private static final int MAX_BATCH_SIZE = 500;
 
-    @Value("${server.port}")
-    private String currentPort;
+    private final UserService userService;
+    private final InstanceIdentity instance;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, InstanceIdentity instance) {
         this.userService = userService;
-    }
-
-    // ==================== 辅助方法：获取主机名 ====================
-    private String getHostname() {
-        // 优先使用环境变量 HOSTNAME (Docker 容器中最可靠)
-        String hostname = System.getenv("HOSTNAME");
-        if (hostname != null && !hostname.isEmpty()) {
-            return hostname;
-        }
-
-        // 备用方案：使用 InetAddress
-        try {
-            return InetAddress.getLocalHost().getHostName();
-        } catch (Exception e) {
-            log.warn("Failed to get hostname: {}", e.getMessage());
-        }
-
-        // 最后的 fallback
-        return "unknown-" + currentPort;
+        this.instance = instance;
     }
 
     // ==================== Student Endpoints ====================
     @PostMapping("/students")
     @ResponseStatus(HttpStatus.CREATED)
-    public Map<String, Object> createStudent(@Valid @RequestBody StudentRequest request) {
+    public ApiResponse createStudent(@Valid @RequestBody StudentRequest request) {
         log.info("User Service [port: {}, hostname: {}] creating student: {}",
-                currentPort, getHostname(), request.studentId());
+                instance.port(), instance.hostname(), request.studentId());
 
         Student student = new Student(
                 request.username(),
@@ -70,86 +54,75 @@ public class UserController {
         );
         Student created = userService.createStudent(student);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-        response.put("data", StudentResponse.from(created));
-        response.put("status", "SUCCESS");
-        return response;
+        return ApiResponse.success(instance, StudentResponse.from(created));
     }
 
     @GetMapping("/students")
-    public Map<String, Object> getAllStudents() {
+    public ApiResponse getAllStudents() {
         log.info("User Service [port: {}, hostname: {}] getting all students",
-                currentPort, getHostname());
+                instance.port(), instance.hostname());
 
         List<StudentResponse> students = userService.getAllStudents().stream()
                 .map(StudentResponse::from)
                 .collect(Collectors.toList());
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-        response.put("data", students);
-        response.put("count", students.size());
-        response.put("status", "SUCCESS");
-        return response;
+        return ApiResponse.success(instance, students)
+                .with("count", students.size());
     }
 
     @GetMapping("/students/{id}")
-    public ResponseEntity<Map<String, Object>> getStudentById(@PathVariable String id) {
+    public ResponseEntity<ApiResponse> getStudentById(@PathVariable String id) {
         log.info("User Service [port: {}, hostname: {}] getting student by id: {}",
-                currentPort, getHostname(), id);
+                instance.port(), instance.hostname(), id);
 
         return userService.getStudentById(id)
-                .map(student -> {
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("port", currentPort);
-                    response.put("hostname", getHostname());
-                    response.put("data", StudentResponse.from(student));
-                    response.put("status", "SUCCESS");
-                    return ResponseEntity.ok(response);
-                })
-                .orElseGet(() -> {
-                    Map<String, Object> errorResponse = new HashMap<>();
-                    errorResponse.put("port", currentPort);
-                    errorResponse.put("hostname", getHostname());
-                    errorResponse.put("status", "ERROR");
-                    errorResponse.put("message", "Student with id " + id + " not found");
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-                });
+                .map(student -> ResponseEntity.ok(ApiResponse.success(instance, StudentResponse.from(student))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(instance, "Student with id " + id + " not found")));
     }
 
     @GetMapping("/students/studentId/{studentId}")
-    public ResponseEntity<Map<String, Object>> getStudentByStudentId(@PathVariable String studentId) {
+    public ResponseEntity<ApiResponse> getStudentByStudentId(@PathVariable String studentId) {
         log.info("User Service [port: {}, hostname: {}] getting student by studentId: {}",
-                currentPort, getHostname(), studentId);
+                instance.port(), instance.hostname(), studentId);
 
         return userService.getStudentByStudentId(studentId)
-                .map(student -> {
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("port", currentPort);
-                    response.put("hostname", getHostname());
-                    response.put("data", StudentResponse.from(student));
-                    response.put("status", "SUCCESS");
-                    return ResponseEntity.ok(response);
-                })
-                .orElseGet(() -> {
-                    Map<String, Object> errorResponse = new HashMap<>();
-                    errorResponse.put("port", currentPort);
-                    errorResponse.put("hostname", getHostname());
-                    errorResponse.put("status", "ERROR");
-                    errorResponse.put("message", "Student with studentId " + studentId + " not found");
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-                });
+                .map(student -> ResponseEntity.ok(ApiResponse.success(instance, StudentResponse.from(student))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(instance, "Student with studentId " + studentId + " not found")));
+    }
+
+    /**
+     * 按学号批量查询学生：一次 IN 查询，data 为 studentId -> 学生摘要 的映射，不存在的学号列在 missing 中
+     */
+    @PostMapping("/students/batch")
+    public ResponseEntity<ApiResponse> getStudentsByStudentIds(@Valid @RequestBody StudentBatchRequest request) {
+        log.info("User Service [port: {}, hostname: {}] batch getting {} students by studentId",
+                instance.port(), instance.hostname(), request.studentIds().size());
+
+        Set<String> studentIds = new LinkedHashSet<>(request.studentIds());
+        if (studentIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(instance, "At most " + MAX_BATCH_SIZE + " studentIds per request"));
+        }
+
+        Map<String, StudentSummary> students = new LinkedHashMap<>();
+        for (Student student : userService.getStudentsByStudentIds(studentIds)) {
+            students.put(student.getStudentId(), StudentSummary.from(student));
+        }
+        List<String> missing = studentIds.stream().filter(id -> !students.containsKey(id)).toList();
+
+        return ResponseEntity.ok(ApiResponse.success(instance, students)
+                .with("missing", missing)
+                .with("count", students.size()));
     }
 
     @PutMapping("/students/{id}")
-    public ResponseEntity<Map<String, Object>> updateStudent(
+    public ResponseEntity<ApiResponse> updateStudent(
             @PathVariable String id,
             @Valid @RequestBody StudentRequest request) {
         log.info("User Service [port: {}, hostname: {}] updating student: {}",
-                currentPort, getHostname(), id);
+                instance.port(), instance.hostname(), id);
 
         return userService.getStudentById(id)
                 .map(existing -> {
@@ -161,37 +134,26 @@ public class UserController {
                     existing.setGrade(request.grade());
                     Student updated = userService.updateStudent(existing);
 
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("port", currentPort);
-                    response.put("hostname", getHostname());
-                    response.put("data", StudentResponse.from(updated));
-                    response.put("status", "SUCCESS");
-                    return ResponseEntity.ok(response);
+                    return ResponseEntity.ok(ApiResponse.success(instance, StudentResponse.from(updated)));
                 })
-                .orElseGet(() -> {
-                    Map<String, Object> errorResponse = new HashMap<>();
-                    errorResponse.put("port", currentPort);
-                    errorResponse.put("hostname", getHostname());
-                    errorResponse.put("status", "ERROR");
-                    errorResponse.put("message", "Student with id " + id + " not found");
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-                });
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(instance, "Student with id " + id + " not found")));
     }
 
     @DeleteMapping("/students/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteStudent(@PathVariable String id) {
         log.info("User Service [port: {}, hostname: {}] deleting student: {}",
-                currentPort, getHostname(), id);
+                instance.port(), instance.hostname(), id);
         userService.deleteStudent(id);
     }
 
     // ==================== Teacher Endpoints ====================
     @PostMapping("/teachers")
     @ResponseStatus(HttpStatus.CREATED)
-    public Map<String, Object> createTeacher(@Valid @RequestBody TeacherRequest request) {
+    public ApiResponse createTeacher(@Valid @RequestBody TeacherRequest request) {
         log.info("User Service [port: {}, hostname: {}] creating teacher: {}",
-                currentPort, getHostname(), request.teacherId());
+                instance.port(), instance.hostname(), request.teacherId());
 
         Teacher teacher = new Teacher(
                 request.username(),
@@ -204,85 +166,49 @@ public class UserController {
         );
         Teacher created = userService.createTeacher(teacher);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-        response.put("data", TeacherResponse.from(created));
-        response.put("status", "SUCCESS");
-        return response;
+        return ApiResponse.success(instance, TeacherResponse.from(created));
     }
 
     @GetMapping("/teachers")
-    public Map<String, Object> getAllTeachers() {
+    public ApiResponse getAllTeachers() {
         log.info("User Service [port: {}, hostname: {}] getting all teachers",
-                currentPort, getHostname());
+                instance.port(), instance.hostname());
 
         List<TeacherResponse> teachers = userService.getAllTeachers().stream()
                 .map(TeacherResponse::from)
                 .collect(Collectors.toList());
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-        response.put("data", teachers);
-        response.put("count", teachers.size());
-        response.put("status", "SUCCESS");
-        return response;
+        return ApiResponse.success(instance, teachers)
+                .with("count", teachers.size());
     }
 
     @GetMapping("/teachers/{id}")
-    public ResponseEntity<Map<String, Object>> getTeacherById(@PathVariable String id) {
+    public ResponseEntity<ApiResponse> getTeacherById(@PathVariable String id) {
         log.info("User Service [port: {}, hostname: {}] getting teacher by id: {}",
-                currentPort, getHostname(), id);
+                instance.port(), instance.hostname(), id);
 
         return userService.getTeacherById(id)
-                .map(teacher -> {
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("port", currentPort);
-                    response.put("hostname", getHostname());
-                    response.put("data", TeacherResponse.from(teacher));
-                    response.put("status", "SUCCESS");
-                    return ResponseEntity.ok(response);
-                })
-                .orElseGet(() -> {
-                    Map<String, Object> errorResponse = new HashMap<>();
-                    errorResponse.put("port", currentPort);
-                    errorResponse.put("hostname", getHostname());
-                    errorResponse.put("status", "ERROR");
-                    errorResponse.put("message", "Teacher with id " + id + " not found");
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-                });
+                .map(teacher -> ResponseEntity.ok(ApiResponse.success(instance, TeacherResponse.from(teacher))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(instance, "Teacher with id " + id + " not found")));
     }
 
     @GetMapping("/teachers/teacherId/{teacherId}")
-    public ResponseEntity<Map<String, Object>> getTeacherByTeacherId(@PathVariable String teacherId) {
+    public ResponseEntity<ApiResponse> getTeacherByTeacherId(@PathVariable String teacherId) {
         log.info("User Service [port: {}, hostname: {}] getting teacher by teacherId: {}",
-                currentPort, getHostname(), teacherId);
+                instance.port(), instance.hostname(), teacherId);
 
         return userService.getTeacherByTeacherId(teacherId)
-                .map(teacher -> {
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("port", currentPort);
-                    response.put("hostname", getHostname());
-                    response.put("data", TeacherResponse.from(teacher));
-                    response.put("status", "SUCCESS");
-                    return ResponseEntity.ok(response);
-                })
-                .orElseGet(() -> {
-                    Map<String, Object> errorResponse = new HashMap<>();
-                    errorResponse.put("port", currentPort);
-                    errorResponse.put("hostname", getHostname());
-                    errorResponse.put("status", "ERROR");
-                    errorResponse.put("message", "Teacher with teacherId " + teacherId + " not found");
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-                });
+                .map(teacher -> ResponseEntity.ok(ApiResponse.success(instance, TeacherResponse.from(teacher))))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(instance, "Teacher with teacherId " + teacherId + " not found")));
     }
 
     @DeleteMapping("/teachers/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteTeacher(@PathVariable String id) {
         log.info("User Service [port: {}, hostname: {}] deleting teacher: {}",
-                currentPort, getHostname(), id);
+                instance.port(), instance.hostname(), id);
         userService.deleteTeacher(id);
     }
 
@@ -291,8 +217,8 @@ public class UserController {
     public Map<String, Object> healthCheck() {
         Map<String, Object> health = new HashMap<>();
         health.put("status", "UP");
-        health.put("port", currentPort);
-        health.put("hostname", getHostname());
+        health.put("port", instance.port());
+        health.put("hostname", instance.hostname());
         health.put("service", "user-service");
         health.put("timestamp", System.currentTimeMillis());
         return health;
@@ -317,16 +243,10 @@ public class UserController {
         Map<String, Object> response = new HashMap<>();
         response.put("service", "user-service");
         response.put("endpoint", "/api/students/test");
-        response.put("port", currentPort);
-        response.put("hostname", getHostname());
-
-        // ★ 添加容器IP,用于负载均衡测试
-        try {
-            response.put("ip", InetAddress.getLocalHost().getHostAddress());
-        } catch (Exception e) {
-            response.put("ip", "unknown");
-            log.warn("Failed to get IP address: {}", e.getMessage());
-        }
+        response.put("port", instance.port());
+        response.put("hostname", instance.hostname());
+        // ★ 添加容器IP,用于负载均衡测试（启动时解析）
+        response.put("ip", instance.address());
 
         response.put("timestamp", LocalDateTime.now());
         response.put("status", "UP");
@@ -367,6 +287,28 @@ public class UserController {
         }
     }
 
+    public record StudentBatchRequest(
+            @NotEmpty List<String> studentIds
+    ) {}
+
+    public record StudentSummary(
+            String id,
+            String studentId,
+            String name,
+            String major,
+            Integer grade
+    ) {
+        public static StudentSummary from(Student student) {
+            return new StudentSummary(
+                    student.getId(),
+                    student.getStudentId(),
+                    student.getName(),
+                    student.getMajor(),
+                    student.getGrade()
+            );
+        }
+    }
+
     public record TeacherRequest(
             String username,
             String email,
@@ -4,11 +4,14 @@ import com.zjgsu.syt.coursecloud.user.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, String> {
     Optional<Student> findByStudentId(String studentId);
+    List<Student> findByStudentIdIn(Collection<String> studentIds);
     boolean existsByStudentId(String studentId);
     boolean existsByEmail(String email);
 
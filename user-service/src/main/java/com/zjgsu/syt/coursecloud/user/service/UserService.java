@@ -7,6 +7,7 @@ import com.zjgsu.syt.coursecloud.user.repository.TeacherRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,6 +62,14 @@ public class UserService {
         return studentRepository.findByStudentId(studentId);
     }
 
+    /**
+     * 按学号批量查询学生，一次 IN 查询
+     */
+    @Transactional(readOnly = true)
+    public List<Student> getStudentsByStudentIds(Collection<String> studentIds) {
+        return studentRepository.findByStudentIdIn(studentIds);
+    }
+
     public Optional<Teacher> getTeacherByTeacherId(String teacherId) {
         return teacherRepository.findByTeacherId(teacherId);
     }